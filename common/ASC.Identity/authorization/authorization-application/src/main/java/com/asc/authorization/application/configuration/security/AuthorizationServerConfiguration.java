@@ -28,19 +28,23 @@
 package com.asc.authorization.application.configuration.security;
 
 import com.asc.authorization.application.security.converter.PersonalAccessTokenAuthenticationConverter;
+import com.asc.authorization.application.security.encoder.HashedClientSecretPasswordEncoder;
 import com.asc.authorization.application.security.filter.AnonymousReplacerAuthenticationFilter;
+import com.asc.authorization.application.security.filter.JwkSetResponseFilter;
 import com.asc.authorization.application.security.filter.RateLimiterFilter;
 import com.asc.authorization.application.security.provider.AscCodeAuthenticationProvider;
 import com.asc.authorization.application.security.provider.AscPersonalAccessTokenAuthenticationProvider;
 import com.asc.authorization.application.security.provider.AscTokenIntrospectionAuthenticationProvider;
-import com.asc.common.application.client.AscApiClient;
+import com.asc.authorization.application.security.service.AscIdentityContextService;
 import com.asc.common.service.ports.output.message.publisher.AuditMessagePublisher;
 import com.asc.common.utilities.HttpUtils;
+import com.asc.common.utilities.crypto.SecretHashingService;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import jakarta.servlet.RequestDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -72,7 +76,7 @@ import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 public class AuthorizationServerConfiguration {
   private final AuthorizationFormConfiguration formConfiguration;
 
-  private final AscApiClient ascApiClient;
+  private final AscIdentityContextService identityContextService;
   private final AuditMessagePublisher auditMessagePublisher;
 
   private final HttpUtils httpUtils;
@@ -91,6 +95,7 @@ public class AuthorizationServerConfiguration {
 
   private final RateLimiterFilter rateLimiterFilter;
   private final AnonymousReplacerAuthenticationFilter authenticationFilter;
+  private final JwkSetResponseFilter jwkSetResponseFilter;
 
   /**
    * Configures the security filter chain for the authorization server.
@@ -122,7 +127,7 @@ public class AuthorizationServerConfiguration {
                         converters ->
                             converters.add(
                                 new PersonalAccessTokenAuthenticationConverter(
-                                    ascApiClient, httpUtils)))
+                                    identityContextService, httpUtils)))
                     .authenticationProviders(
                         providers ->
                             providers.add(
@@ -151,6 +156,7 @@ public class AuthorizationServerConfiguration {
                 },
                 new AntPathRequestMatcher(formConfiguration.getLogin())));
     http.addFilterBefore(rateLimiterFilter, ChannelProcessingFilter.class);
+    http.addFilterBefore(jwkSetResponseFilter, LogoutFilter.class);
     http.addFilterBefore(authenticationFilter, LogoutFilter.class);
 
     http.cors(AbstractHttpConfigurer::disable);
@@ -193,13 +199,21 @@ public class AuthorizationServerConfiguration {
   }
 
   /**
-   * Creates the password encoder bean.
+   * Creates the password encoder bean used to authenticate clients. In {@code hash} mode client
+   * secrets are verified against their keyed hash; {@code plain} mode, the default, compares
+   * decrypted secrets. Switch to {@code hash} once every registration node writes secret hashes.
    *
+   * @param secretHashingService the service used to hash client secrets.
+   * @param secretVerification the client secret verification mode, {@code hash} or {@code plain}.
    * @return the {@link PasswordEncoder} bean.
    */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return NoOpPasswordEncoder.getInstance();
+  public PasswordEncoder passwordEncoder(
+      SecretHashingService secretHashingService,
+      @Value("${spring.security.oauth2.client-secret.verification:plain}")
+          String secretVerification) {
+    if ("plain".equalsIgnoreCase(secretVerification)) return NoOpPasswordEncoder.getInstance();
+    return new HashedClientSecretPasswordEncoder(secretHashingService);
   }
 
   /**
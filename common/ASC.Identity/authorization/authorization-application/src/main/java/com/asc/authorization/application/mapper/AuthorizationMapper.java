@@ -36,7 +36,9 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.annotation.PostConstruct;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.jackson2.SecurityJackson2Modules;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
@@ -56,8 +58,15 @@ import org.springframework.util.StringUtils;
 public class AuthorizationMapper {
   private final String UTC = "UTC";
   private final ObjectMapper objectMapper = new ObjectMapper();
+  private AuthorizationMetadataCodec metadataCodec;
 
-  /** Initializes the {@link ObjectMapper} with required modules. */
+  @Value("${spring.security.oauth2.authorization.metadata-format:json}")
+  private String metadataFormat;
+
+  @Value("${spring.security.oauth2.authorization.jwt-claims-storage:embedded}")
+  private String jwtClaimsStorage;
+
+  /** Initializes the {@link ObjectMapper} with required modules and the metadata codec. */
   @PostConstruct
   public void init() {
     var classLoader = AscAuthorizationService.class.getClassLoader();
@@ -66,6 +75,9 @@ public class AuthorizationMapper {
     objectMapper.registerModule(new OAuth2AuthorizationServerJackson2Module());
     objectMapper.registerModule(new JavaTimeModule());
     objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    metadataCodec =
+        new AuthorizationMetadataCodec(
+            this::writeJson, this::parseJson, !"json".equalsIgnoreCase(metadataFormat));
   }
 
   /**
@@ -116,7 +128,15 @@ public class AuthorizationMapper {
               expiresAt,
               StringUtils.commaDelimitedListToSet(entity.getAccessTokenScopes()));
       builder.token(
-          accessToken, metadata -> metadata.putAll(parseMap(entity.getAccessTokenMetadata())));
+          accessToken,
+          metadata -> {
+            metadata.putAll(parseMap(entity.getAccessTokenMetadata()));
+            if (!metadata.containsKey(OAuth2Authorization.Token.CLAIMS_METADATA_NAME)
+                && LazyJwtClaims.isJwt(entity.getAccessTokenValue()))
+              metadata.put(
+                  OAuth2Authorization.Token.CLAIMS_METADATA_NAME,
+                  new LazyJwtClaims(entity.getAccessTokenValue()));
+          });
     }
 
     if (entity.getRefreshTokenValue() != null) {
@@ -175,7 +195,7 @@ public class AuthorizationMapper {
               ZonedDateTime.ofInstant(accessToken.getToken().getIssuedAt(), ZoneId.of(UTC)))
           .accessTokenExpiresAt(
               ZonedDateTime.ofInstant(accessToken.getToken().getExpiresAt(), ZoneId.of(UTC)))
-          .accessTokenMetadata(writeMap(accessToken.getMetadata()))
+          .accessTokenMetadata(writeMap(getStoredMetadata(accessToken)))
           .accessTokenType(accessToken.getToken().getTokenType().getValue())
           .accessTokenScopes(
               StringUtils.collectionToCommaDelimitedString(accessToken.getToken().getScopes()));
@@ -209,13 +229,62 @@ public class AuthorizationMapper {
     return update;
   }
 
+  /**
+   * Returns the access token metadata to store. JWT claims are left out when configured to be
+   * omitted, since {@link #fromEntity} recovers them from the token value on demand. Otherwise
+   * recovered claims are stored as a plain map of the issued types, so rows written while claims
+   * were omitted stay readable once they are saved again with embedded claims.
+   *
+   * @param accessToken the access token
+   * @return the metadata to store
+   */
+  private Map<String, Object> getStoredMetadata(
+      OAuth2Authorization.Token<OAuth2AccessToken> accessToken) {
+    var metadata = accessToken.getMetadata();
+    var claims = metadata.get(OAuth2Authorization.Token.CLAIMS_METADATA_NAME);
+    if (claims == null) return metadata;
+
+    if ("omitted".equalsIgnoreCase(jwtClaimsStorage)
+        && LazyJwtClaims.isJwt(accessToken.getToken().getTokenValue())) {
+      var stored = new HashMap<>(metadata);
+      stored.remove(OAuth2Authorization.Token.CLAIMS_METADATA_NAME);
+      return stored;
+    }
+
+    if (!(claims instanceof LazyJwtClaims lazyClaims)) return metadata;
+
+    var stored = new HashMap<>(metadata);
+    stored.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME, lazyClaims.toStoredClaims());
+    return stored;
+  }
+
+  /**
+   * Parses attributes or token metadata written in either the compact encoding or JSON.
+   *
+   * @param data the encoded map
+   * @return the parsed Map
+   */
+  private Map<String, Object> parseMap(String data) {
+    return metadataCodec.decode(data);
+  }
+
+  /**
+   * Writes attributes or token metadata in the configured encoding.
+   *
+   * @param metadata the Map
+   * @return the encoded map
+   */
+  private String writeMap(Map<String, Object> metadata) {
+    return metadataCodec.encode(metadata);
+  }
+
   /**
    * Parses a JSON string to a Map.
    *
    * @param data the JSON string
    * @return the parsed Map
    */
-  private Map<String, Object> parseMap(String data) {
+  private Map<String, Object> parseJson(String data) {
     if (data == null || data.isBlank()) {
       return Map.of();
     }
@@ -232,7 +301,7 @@ public class AuthorizationMapper {
    * @param metadata the Map
    * @return the JSON string
    */
-  private String writeMap(Map<String, Object> metadata) {
+  private String writeJson(Map<String, Object> metadata) {
     try {
       return objectMapper.writeValueAsString(metadata);
     } catch (Exception ex) {
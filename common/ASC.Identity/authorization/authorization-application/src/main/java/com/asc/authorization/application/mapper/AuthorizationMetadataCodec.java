@@ -0,0 +1,341 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.mapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compact, versioned encoding for authorization attributes and token metadata.
+ *
+ * <p>Token metadata mostly consists of a few well-known entries: the token claims, the invalidated
+ * flag and the token format. Written as polymorphic JSON, every claim carries its Java type name
+ * and instants are written as decimal fractions. This codec writes the well-known entries, and any
+ * other entry whose value is a string, boolean, integer, long, instant, string collection or map of
+ * those, as tagged binary values and falls back to JSON for everything else.
+ *
+ * <p>Encoded values are stored in text columns as {@code c1:} followed by URL-safe Base64. Values
+ * without that prefix are read as JSON, so rows written before this encoding keep working.
+ */
+public final class AuthorizationMetadataCodec {
+  /** The prefix of values written in version 1 of the compact encoding. */
+  public static final String COMPACT_V1_PREFIX = "c1:";
+
+  private static final String CLAIMS_KEY = "metadata.token.claims";
+  private static final String INVALIDATED_KEY = "metadata.token.invalidated";
+  private static final String TOKEN_FORMAT_KEY =
+      "org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat";
+  private static final List<String> KNOWN_KEYS =
+      List.of(CLAIMS_KEY, INVALIDATED_KEY, TOKEN_FORMAT_KEY);
+
+  private static final byte LITERAL_KEY = 0;
+
+  private static final byte T_NULL = 0;
+  private static final byte T_STRING = 1;
+  private static final byte T_TRUE = 2;
+  private static final byte T_FALSE = 3;
+  private static final byte T_INT = 4;
+  private static final byte T_LONG = 5;
+  private static final byte T_INSTANT = 6;
+  private static final byte T_LIST = 7;
+  private static final byte T_SET = 8;
+  private static final byte T_MAP = 9;
+
+  private final Function<Map<String, Object>, String> jsonWriter;
+  private final Function<String, Map<String, Object>> jsonReader;
+  private final boolean compact;
+
+  /**
+   * Constructs a new AuthorizationMetadataCodec.
+   *
+   * @param jsonWriter writes a map as polymorphic JSON
+   * @param jsonReader reads a map from polymorphic JSON
+   * @param compact whether to write the compact encoding; JSON is written otherwise
+   */
+  public AuthorizationMetadataCodec(
+      Function<Map<String, Object>, String> jsonWriter,
+      Function<String, Map<String, Object>> jsonReader,
+      boolean compact) {
+    this.jsonWriter = jsonWriter;
+    this.jsonReader = jsonReader;
+    this.compact = compact;
+  }
+
+  /**
+   * Encodes a map of attributes or token metadata. Maps without any compactly encodable entry are
+   * written as plain JSON.
+   *
+   * @param metadata the map to encode
+   * @return the encoded map
+   */
+  public String encode(Map<String, Object> metadata) {
+    if (!compact) return jsonWriter.apply(metadata);
+
+    var encodable = new LinkedHashMap<String, Object>();
+    var residual = new LinkedHashMap<String, Object>();
+    metadata.forEach(
+        (key, value) -> {
+          if (isEncodable(value, 0)) encodable.put(key, value);
+          else residual.put(key, value);
+        });
+
+    if (encodable.isEmpty()) return jsonWriter.apply(metadata);
+
+    var out = new ByteArrayOutputStream(128);
+    writeVarInt(out, encodable.size());
+    encodable.forEach(
+        (key, value) -> {
+          var code = KNOWN_KEYS.indexOf(key) + 1;
+          out.write(code);
+          if (code == LITERAL_KEY) writeString(out, key);
+          writeValue(out, value);
+        });
+
+    if (residual.isEmpty()) out.write(0);
+    else {
+      out.write(1);
+      writeString(out, jsonWriter.apply(residual));
+    }
+
+    return COMPACT_V1_PREFIX
+        + Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+  }
+
+  /**
+   * Decodes a map written by {@link #encode(Map)} in either the compact encoding or JSON.
+   *
+   * @param data the encoded map
+   * @return the decoded map
+   */
+  public Map<String, Object> decode(String data) {
+    if (data == null || !data.startsWith(COMPACT_V1_PREFIX)) return jsonReader.apply(data);
+
+    var in =
+        ByteBuffer.wrap(Base64.getUrlDecoder().decode(data.substring(COMPACT_V1_PREFIX.length())));
+    var size = readVarInt(in);
+    var result = new LinkedHashMap<String, Object>(size * 2);
+    for (var i = 0; i < size; i++) {
+      var code = in.get();
+      var key = code == LITERAL_KEY ? readString(in) : KNOWN_KEYS.get(code - 1);
+      result.put(key, readValue(in));
+    }
+
+    if (in.get() == 1) result.putAll(jsonReader.apply(readString(in)));
+    return result;
+  }
+
+  /**
+   * Checks whether a value can be written as a tagged binary value.
+   *
+   * @param value the value
+   * @param depth the nesting depth of the value
+   * @return true if the value can be encoded compactly, false otherwise
+   */
+  private boolean isEncodable(Object value, int depth) {
+    return switch (value) {
+      case null -> true;
+      case String s -> true;
+      case Boolean b -> true;
+      case Integer i -> true;
+      case Long l -> true;
+      case Instant instant -> true;
+      case List<?> list -> list.stream().allMatch(String.class::isInstance);
+      case Set<?> set -> set.stream().allMatch(String.class::isInstance);
+      case Map<?, ?> map ->
+          depth == 0
+              && map.entrySet().stream()
+                  .allMatch(
+                      e -> e.getKey() instanceof String && isEncodable(e.getValue(), depth + 1));
+      default -> false;
+    };
+  }
+
+  /**
+   * Writes a tagged value.
+   *
+   * @param out the output
+   * @param value the value, which must be encodable
+   */
+  private void writeValue(ByteArrayOutputStream out, Object value) {
+    switch (value) {
+      case null -> out.write(T_NULL);
+      case String s -> {
+        out.write(T_STRING);
+        writeString(out, s);
+      }
+      case Boolean b -> out.write(b ? T_TRUE : T_FALSE);
+      case Integer i -> {
+        out.write(T_INT);
+        writeVarLong(out, i);
+      }
+      case Long l -> {
+        out.write(T_LONG);
+        writeVarLong(out, l);
+      }
+      case Instant instant -> {
+        out.write(T_INSTANT);
+        writeVarLong(out, instant.getEpochSecond());
+        writeVarInt(out, instant.getNano());
+      }
+      case Map<?, ?> map -> {
+        out.write(T_MAP);
+        writeVarInt(out, map.size());
+        map.forEach(
+            (key, v) -> {
+              writeString(out, (String) key);
+              writeValue(out, v);
+            });
+      }
+      case Collection<?> collection -> {
+        out.write(collection instanceof Set<?> ? T_SET : T_LIST);
+        writeVarInt(out, collection.size());
+        collection.forEach(item -> writeString(out, (String) item));
+      }
+      default -> throw new IllegalArgumentException("Unsupported value type " + value.getClass());
+    }
+  }
+
+  /**
+   * Reads a tagged value.
+   *
+   * @param in the input
+   * @return the value
+   */
+  private Object readValue(ByteBuffer in) {
+    var tag = in.get();
+    return switch (tag) {
+      case T_NULL -> null;
+      case T_STRING -> readString(in);
+      case T_TRUE -> Boolean.TRUE;
+      case T_FALSE -> Boolean.FALSE;
+      case T_INT -> (int) readVarLong(in);
+      case T_LONG -> readVarLong(in);
+      case T_INSTANT -> Instant.ofEpochSecond(readVarLong(in), readVarInt(in));
+      case T_LIST, T_SET -> {
+        var size = readVarInt(in);
+        var items = new ArrayList<String>(size);
+        for (var i = 0; i < size; i++) items.add(readString(in));
+        yield tag == T_SET
+            ? Collections.unmodifiableSet(new LinkedHashSet<>(items))
+            : Collections.unmodifiableList(items);
+      }
+      case T_MAP -> {
+        var size = readVarInt(in);
+        var map = new LinkedHashMap<String, Object>(size * 2);
+        for (var i = 0; i < size; i++) map.put(readString(in), readValue(in));
+        yield Collections.unmodifiableMap(map);
+      }
+      default -> throw new IllegalArgumentException("Unknown value tag " + tag);
+    };
+  }
+
+  /**
+   * Writes a length-prefixed UTF-8 string.
+   *
+   * @param out the output
+   * @param value the string
+   */
+  private static void writeString(ByteArrayOutputStream out, String value) {
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(out, bytes.length);
+    out.writeBytes(bytes);
+  }
+
+  /**
+   * Reads a length-prefixed UTF-8 string.
+   *
+   * @param in the input
+   * @return the string
+   */
+  private static String readString(ByteBuffer in) {
+    var bytes = new byte[readVarInt(in)];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes an unsigned variable-length integer.
+   *
+   * @param out the output
+   * @param value the integer
+   */
+  private static void writeVarInt(ByteArrayOutputStream out, int value) {
+    writeVarLong(out, value & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Reads an unsigned variable-length integer.
+   *
+   * @param in the input
+   * @return the integer
+   */
+  private static int readVarInt(ByteBuffer in) {
+    return (int) readVarLong(in);
+  }
+
+  /**
+   * Writes a variable-length long, seven bits per byte.
+   *
+   * @param out the output
+   * @param value the long
+   */
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  /**
+   * Reads a variable-length long, seven bits per byte.
+   *
+   * @param in the input
+   * @return the long
+   */
+  private static long readVarLong(ByteBuffer in) {
+    var result = 0L;
+    for (var shift = 0; ; shift += 7) {
+      var b = in.get();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return result;
+    }
+  }
+}
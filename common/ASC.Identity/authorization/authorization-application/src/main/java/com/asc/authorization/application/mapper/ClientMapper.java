@@ -31,9 +31,12 @@ import com.asc.authorization.application.configuration.security.RegisteredClient
 import com.asc.authorization.application.security.grant.ExtendedAuthorizationGrantType;
 import com.asc.common.core.domain.value.enums.AuthenticationMethod;
 import com.asc.common.data.client.entity.ClientEntity;
+import com.asc.common.data.client.projection.ClientAccessProjection;
 import com.asc.common.data.scope.entity.ScopeEntity;
+import com.asc.common.service.transfer.response.ClientAccessResponse;
 import com.asc.common.service.transfer.response.ClientResponse;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -133,6 +136,39 @@ public class ClientMapper {
         .isPublic(client.isAccessible())
         .enabled(client.isEnabled())
         .invalidated(client.isInvalidated())
+        .version(client.getVersion())
+        .build();
+  }
+
+  /**
+   * Converts a {@link ClientAccessProjection} and the client's collections to a {@link
+   * ClientAccessResponse}.
+   *
+   * @param client the ClientAccessProjection to convert.
+   * @param scopes the names of the client's scopes.
+   * @param redirectUris the client's redirect URIs.
+   * @param authenticationMethods the client's authentication methods.
+   * @return the ClientAccessResponse.
+   */
+  public ClientAccessResponse toClientAccessResponse(
+      ClientAccessProjection client,
+      Collection<String> scopes,
+      Collection<String> redirectUris,
+      Collection<AuthenticationMethod> authenticationMethods) {
+    if (client == null) throw new IllegalArgumentException("Client cannot be null");
+
+    return ClientAccessResponse.builder()
+        .clientId(client.clientId())
+        .tenant(client.tenantId())
+        .isPublic(client.accessible())
+        .enabled(client.enabled())
+        .invalidated(client.invalidated())
+        .scopes(new HashSet<>(scopes))
+        .redirectUris(new HashSet<>(redirectUris))
+        .authenticationMethods(
+            authenticationMethods.stream()
+                .map(AuthenticationMethod::getMethod)
+                .collect(Collectors.toSet()))
         .build();
   }
 
@@ -0,0 +1,137 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.mapper;
+
+import com.nimbusds.jwt.JWTParser;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
+
+/**
+ * Claims of an issued JWT which are decoded from the token value on first access.
+ *
+ * <p>Used in place of the {@code metadata.token.claims} entry of access tokens stored without their
+ * claims. The token was issued and stored by this service, so its signature is not verified again;
+ * claims are converted the same way as by the JWT decoder.
+ */
+final class LazyJwtClaims extends AbstractMap<String, Object> implements Serializable {
+  @Serial private static final long serialVersionUID = 1L;
+
+  private static final MappedJwtClaimSetConverter CLAIM_SET_CONVERTER =
+      MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+
+  private final String tokenValue;
+  private transient volatile Map<String, Object> claims;
+
+  /**
+   * Constructs a new LazyJwtClaims.
+   *
+   * @param tokenValue the serialized JWT
+   */
+  LazyJwtClaims(String tokenValue) {
+    this.tokenValue = tokenValue;
+  }
+
+  /**
+   * Checks whether a token value is a serialized JWT whose claims can be recovered.
+   *
+   * @param tokenValue the token value
+   * @return true if the value has the three parts of a compact JWS, false otherwise
+   */
+  static boolean isJwt(String tokenValue) {
+    if (tokenValue == null) return false;
+
+    var first = tokenValue.indexOf('.');
+    var second = first < 0 ? -1 : tokenValue.indexOf('.', first + 1);
+    return second > 0 && tokenValue.indexOf('.', second + 1) < 0;
+  }
+
+  /**
+   * Returns the decoded claims.
+   *
+   * @return the claim entries
+   * @throws IllegalStateException if the token value cannot be parsed
+   */
+  public Set<Entry<String, Object>> entrySet() {
+    var result = claims;
+    if (result == null) {
+      try {
+        var parsed = JWTParser.parse(tokenValue).getJWTClaimsSet().getClaims();
+        result = Collections.unmodifiableMap(CLAIM_SET_CONVERTER.convert(parsed));
+      } catch (Exception e) {
+        throw new IllegalStateException("Could not recover claims from access token", e);
+      }
+      claims = result;
+    }
+
+    return result.entrySet();
+  }
+
+  /**
+   * Copies the decoded claims into a plain map which can be stored as token metadata. The JWT
+   * parser reads every integral claim as a long, so longs which fit an int are narrowed back to the
+   * int they were issued as.
+   *
+   * @return a mutable copy of the claims
+   */
+  Map<String, Object> toStoredClaims() {
+    var stored = new LinkedHashMap<String, Object>();
+    forEach((name, value) -> stored.put(name, toStoredValue(value)));
+    return stored;
+  }
+
+  /**
+   * Narrows a claim value to the type it was issued as.
+   *
+   * @param value the decoded claim value
+   * @return the value to store
+   */
+  private static Object toStoredValue(Object value) {
+    return switch (value) {
+      case Long l when l == l.intValue() -> l.intValue();
+      case List<?> list -> {
+        var stored = new ArrayList<Object>(list.size());
+        list.forEach(v -> stored.add(toStoredValue(v)));
+        yield stored;
+      }
+      case Map<?, ?> map -> {
+        var stored = new LinkedHashMap<Object, Object>();
+        map.forEach((name, v) -> stored.put(name, toStoredValue(v)));
+        yield stored;
+      }
+      case null, default -> value;
+    };
+  }
+}
@@ -29,9 +29,7 @@ package com.asc.authorization.application.security.converter;
 
 import com.asc.authorization.application.security.authentication.PersonalAccessTokenAuthenticationToken;
 import com.asc.authorization.application.security.grant.ExtendedAuthorizationGrantType;
-import com.asc.common.application.client.AscApiClient;
-import com.asc.common.application.transfer.response.AscPersonResponse;
-import com.asc.common.application.transfer.response.AscTenantResponse;
+import com.asc.authorization.application.security.service.AscIdentityContextService;
 import com.asc.common.utilities.HttpUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
@@ -66,7 +64,7 @@ public final class PersonalAccessTokenAuthenticationConverter implements Authent
       "https://datatracker.ietf.org/doc/html/rfc6749#section-5.2";
   private static final String ASC_AUTH_COOKIE = "asc_auth_key";
 
-  private final AscApiClient apiClient;
+  private final AscIdentityContextService identityContextService;
   private final HttpUtils httpUtils;
 
   /**
@@ -140,8 +138,8 @@ public final class PersonalAccessTokenAuthenticationConverter implements Authent
       var uri = URI.create(address);
       var cookie = String.format("%s=%s", authCookie.getName(), authCookie.getValue());
 
-      var meFuture = CompletableFuture.supplyAsync(() -> apiClient.getMe(uri, cookie));
-      var tenantFuture = CompletableFuture.supplyAsync(() -> apiClient.getTenant(uri, cookie));
+      var meFuture = identityContextService.getMe(request, uri, cookie);
+      var tenantFuture = identityContextService.getTenant(request, uri, cookie);
 
       CompletableFuture.allOf(meFuture, tenantFuture).join();
 
@@ -155,7 +153,6 @@ public final class PersonalAccessTokenAuthenticationConverter implements Authent
       }
 
       var tenantResponse = tenant.getResponse();
-      setRequestAttributes(request, me.getResponse(), tenantResponse);
 
       log.debug("Conversion to PersonalAccessTokenAuthenticationToken successful");
       return new PersonalAccessTokenAuthenticationToken(
@@ -174,12 +171,6 @@ public final class PersonalAccessTokenAuthenticationConverter implements Authent
     }
   }
 
-  private void setRequestAttributes(
-      HttpServletRequest request, AscPersonResponse person, AscTenantResponse tenant) {
-    request.setAttribute("person", person);
-    request.setAttribute("tenant", tenant);
-  }
-
   static MultiValueMap<String, String> getFormParameters(HttpServletRequest request) {
     var parameterMap = request.getParameterMap();
     var parameters = new LinkedMultiValueMap<String, String>();
@@ -0,0 +1,128 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.filter;
+
+import com.asc.authorization.application.configuration.security.RegisteredClientConfiguration;
+import com.asc.authorization.application.security.jwks.KeyPairRepositoryJWKSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter for serving the JWK set endpoint from the body pre-serialized by {@link
+ * KeyPairRepositoryJWKSource}, with a strong ETag and a Cache-Control max-age.
+ *
+ * <p>Signing keys are used as soon as they are generated, while retired keys stay published for a
+ * full access token TTL, so the max-age is a quarter of that TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwkSetResponseFilter extends OncePerRequestFilter {
+  private static final String JWK_SET_ENDPOINT =
+      AuthorizationServerSettings.builder().build().getJwkSetEndpoint();
+  private static final int MIN_MAX_AGE_SECONDS = 60;
+
+  private final KeyPairRepositoryJWKSource jwkSource;
+  private final RegisteredClientConfiguration registeredClientConfiguration;
+
+  @Value("${spring.security.oauth2.jwks.precomputed-response:true}")
+  private boolean enabled;
+
+  /**
+   * Writes the pre-serialized JWK set, or a 304 response when the client already has it.
+   *
+   * @param request the HttpServletRequest.
+   * @param response the HttpServletResponse.
+   * @param chain the FilterChain.
+   * @throws ServletException if an error occurs during the filter process.
+   * @throws IOException if an I/O error occurs during the filter process.
+   */
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    var jwkSet = jwkSource.getPublicJwkSet();
+    var maxAge =
+        Math.max(
+            MIN_MAX_AGE_SECONDS, registeredClientConfiguration.getAccessTokenMinutesTTL() * 15);
+
+    response.setHeader(HttpHeaders.ETAG, jwkSet.etag());
+    response.setHeader(HttpHeaders.CACHE_CONTROL, String.format("public, max-age=%d", maxAge));
+
+    if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), jwkSet.etag())) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(jwkSet.body().length);
+    response.getOutputStream().write(jwkSet.body());
+  }
+
+  /**
+   * Checks whether an If-None-Match header matches the given entity tag.
+   *
+   * @param ifNoneMatch the If-None-Match header value, may be null.
+   * @param etag the current entity tag.
+   * @return true if the header contains the tag or a wildcard, false otherwise.
+   */
+  private boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+    for (var candidate : ifNoneMatch.split(",")) {
+      var tag = candidate.trim();
+      if (tag.startsWith("W/")) tag = tag.substring(2);
+      if (tag.equals("*") || tag.equals(etag)) return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Determines whether the filter should be applied to the given request.
+   *
+   * @param request the HttpServletRequest.
+   * @return true if the filter should not be applied, false otherwise.
+   */
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled
+        || !HttpMethod.GET.matches(request.getMethod())
+        || !request.getRequestURI().endsWith(JWK_SET_ENDPOINT);
+  }
+}
@@ -33,32 +33,45 @@ import com.asc.authorization.application.security.authority.TenantAuthority;
 import com.asc.authorization.application.security.service.AscKeyPairService;
 import com.asc.authorization.data.key.entity.KeyPair;
 import com.asc.common.core.domain.value.KeyPairType;
+import com.asc.common.utilities.crypto.HashingService;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
 import com.nimbusds.jose.KeySourceException;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
 import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.stereotype.Component;
@@ -66,6 +79,13 @@ import org.springframework.stereotype.Component;
 /**
  * A component responsible for managing JWK (JSON Web Key) sources and customizing OAuth2 tokens. It
  * handles key rotation, invalidation, and JWK retrieval for security purposes.
+ *
+ * <p>Active keys are decrypted and parsed into an immutable {@link Snapshot} which is swapped
+ * atomically. The snapshot is rebuilt after a rotation, when it is older than the configured
+ * refresh interval, and when another node announces a rotation through a Hazelcast topic, so
+ * signing a token or serving the JWK set does not touch the database. Announced rotations are
+ * loaded on a separate executor rather than on the Hazelcast event thread, and a failed refresh
+ * keeps the last good snapshot in service.
  */
 @Slf4j
 @Component
@@ -81,12 +101,69 @@ public class KeyPairRepositoryJWKSource
 
   private final KeyPairMapper keyPairMapper;
   private final AscKeyPairService keyPairService;
+  private final HazelcastInstance hazelcastInstance;
+  private final HashingService hashingService;
+
+  private static final String ROTATION_TOPIC = "jwksRotation";
+
+  /** The claim which marks a JWT as an access token, as opposed to an ID token. */
+  public static final String TOKEN_USE_CLAIM = "token_use";
+
+  /** The value of {@link #TOKEN_USE_CLAIM} in access tokens. */
+  public static final String ACCESS_TOKEN_USE = "access";
 
   private static Duration rotationPeriod;
   private static Duration deprecationPeriod;
 
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+  private final String nodeId = UUID.randomUUID().toString();
+
+  @Value("${spring.security.oauth2.jwks.refresh-interval:PT1M}")
+  private Duration refreshInterval;
+
+  private ITopic<String> rotationTopic;
+  private UUID rotationListenerId;
+
   /**
-   * Initializes the rotation and deprecation periods based on the registered client configuration.
+   * An immutable view of the parsed active keys.
+   *
+   * @param keys the active keys of the configured generator type
+   * @param publicJwkSet the serialized public JWK set built from the keys
+   * @param signingKeyId the ID of the latest active key pair, or null if there is none
+   * @param signingKeyType the type of the latest active key pair, or null if there is none
+   * @param loadedAt the moment the snapshot was built
+   */
+  private record Snapshot(
+      List<JWK> keys,
+      PublicJwkSet publicJwkSet,
+      String signingKeyId,
+      KeyPairType signingKeyType,
+      Instant loadedAt) {
+
+    /**
+     * Returns a copy of this snapshot which is considered loaded at the given moment.
+     *
+     * @param moment the moment the copy is considered loaded at
+     * @return the copy of the snapshot
+     */
+    private Snapshot retainedAt(Instant moment) {
+      return new Snapshot(keys, publicJwkSet, signingKeyId, signingKeyType, moment);
+    }
+  }
+
+  /**
+   * The public JWK set serialized once per snapshot.
+   *
+   * @param body the UTF-8 encoded JSON representation of the public keys
+   * @param etag a strong entity tag derived from the body
+   */
+  public record PublicJwkSet(byte[] body, String etag) {}
+
+  /**
+   * Initializes the rotation and deprecation periods based on the registered client configuration
+   * and subscribes to rotations announced by other nodes.
    */
   @PostConstruct
   public void init() {
@@ -94,9 +171,29 @@ public class KeyPairRepositoryJWKSource
         Duration.ofMinutes(registeredClientConfiguration.getAccessTokenMinutesTTL() * 4L);
     deprecationPeriod =
         Duration.ofMinutes(registeredClientConfiguration.getAccessTokenMinutesTTL());
+
+    rotationTopic = hazelcastInstance.getTopic(ROTATION_TOPIC);
+    rotationListenerId =
+        rotationTopic.addMessageListener(
+            message -> {
+              if (nodeId.equals(message.getMessageObject())) return;
+              log.debug("Key rotation announced by another node, refreshing JWKs");
+              refreshExecutor.execute(this::refreshSnapshot);
+            });
   }
 
-  /** Scheduled task for rotating keys and cleaning up old keys. Runs every 30 minutes. */
+  /** Unsubscribes from the rotation topic and stops pending refreshes. */
+  @PreDestroy
+  public void destroy() {
+    if (rotationTopic != null && rotationListenerId != null)
+      rotationTopic.removeMessageListener(rotationListenerId);
+    refreshExecutor.shutdownNow();
+  }
+
+  /**
+   * Scheduled task for rotating keys and cleaning up old keys. Runs every 30 minutes. The snapshot
+   * is rebuilt afterward and the other nodes are told to do the same.
+   */
   @EventListener(ApplicationReadyEvent.class)
   @Scheduled(fixedDelayString = "PT30M")
   @SchedulerLock(name = "key_rotation_task")
@@ -106,6 +203,13 @@ public class KeyPairRepositoryJWKSource
       invalidateKeys();
     } catch (Exception e) {
       log.error("Critical error during key rotation and cleanup", e);
+    } finally {
+      refreshSnapshot();
+      try {
+        rotationTopic.publish(nodeId);
+      } catch (Exception e) {
+        log.warn("Could not announce key rotation to other nodes", e);
+      }
     }
   }
 
@@ -120,20 +224,7 @@ public class KeyPairRepositoryJWKSource
   public List<JWK> get(JWKSelector jwkSelector, SecurityContext securityContext)
       throws KeySourceException {
     log.debug("Trying to get JWK");
-    var result =
-        getActiveKeyPairs().stream()
-            .filter(
-                keyPair -> {
-                  MDC.put("id", keyPair.getId());
-                  MDC.put("type", keyPair.getPairType().name());
-                  var matches =
-                      keyPair.getPairType().equals(keyPairGenerator.type())
-                          && jwkSelector.getMatcher().matches(buildJwk(keyPair));
-                  MDC.clear();
-                  return matches;
-                })
-            .map(this::buildJwk)
-            .collect(Collectors.toList());
+    var result = jwkSelector.select(new JWKSet(currentSnapshot().keys()));
 
     if (result.isEmpty()) log.warn("No matching JWKs found");
 
@@ -141,16 +232,27 @@ public class KeyPairRepositoryJWKSource
   }
 
   /**
-   * Customizes the JWT encoding context with additional claims and header information.
+   * Returns the public JWK set of the current snapshot, serialized when the snapshot was built.
+   *
+   * @return the serialized public JWK set and its entity tag
+   */
+  public PublicJwkSet getPublicJwkSet() {
+    return currentSnapshot().publicJwkSet();
+  }
+
+  /**
+   * Customizes the JWT encoding context with additional claims and header information. Access
+   * tokens are marked with the {@link #TOKEN_USE_CLAIM} claim, so they can be told apart from ID
+   * tokens signed with the same keys.
    *
    * @param context the JWT encoding context
    */
   public void customize(JwtEncodingContext context) {
-    var activeKeyPair = getLatestActiveKeyPair();
-    if (activeKeyPair == null)
+    var activeKeyPair = currentSnapshot();
+    if (activeKeyPair.signingKeyId() == null)
       throw new UnsupportedOperationException("Could not find any suitable keypair");
 
-    log.debug("Using key pair with ID: {}", activeKeyPair.getId());
+    log.debug("Using key pair with ID: {}", activeKeyPair.signingKeyId());
 
     var principal = context.getPrincipal();
     var authority = principal.getAuthorities().stream().findFirst().orElse(null);
@@ -169,12 +271,14 @@ public class KeyPairRepositoryJWKSource
           .issuer(String.format("%s/oauth2", tenantAuthority.getAuthority()))
           .claim("tid", tenantAuthority.getTenantId())
           .audience(Collections.singletonList(tenantAuthority.getAuthority()));
+    if (OAuth2TokenType.ACCESS_TOKEN.equals(context.getTokenType()))
+      context.getClaims().claim(TOKEN_USE_CLAIM, ACCESS_TOKEN_USE);
 
     context
         .getJwsHeader()
-        .keyId(activeKeyPair.getId())
+        .keyId(activeKeyPair.signingKeyId())
         .algorithm(
-            activeKeyPair.getPairType().equals(KeyPairType.EC)
+            activeKeyPair.signingKeyType().equals(KeyPairType.EC)
                 ? SignatureAlgorithm.ES256
                 : SignatureAlgorithm.RS256);
   }
@@ -215,14 +319,85 @@ public class KeyPairRepositoryJWKSource
   }
 
   /**
-   * Retrieves the set of active key pairs.
+   * Returns the current snapshot, rebuilding it when it is missing or older than the refresh
+   * interval. While another thread rebuilds an expired snapshot, the expired one keeps being
+   * served. If the rebuild fails, the last good snapshot is served for another refresh interval.
    *
-   * @return a set of active key pairs
+   * @return the current snapshot
+   * @throws IllegalStateException if no snapshot has ever been loaded and loading it fails
    */
-  private Set<KeyPair> getActiveKeyPairs() {
+  private Snapshot currentSnapshot() {
+    var current = snapshot.get();
+    if (current != null && current.loadedAt().plus(refreshInterval).isAfter(Instant.now()))
+      return current;
+
+    if (current != null && !refreshLock.tryLock()) return current;
+    if (current == null) refreshLock.lock();
+
+    try {
+      var latest = snapshot.get();
+      if (latest != null && latest != current) return latest;
+      return loadSnapshot();
+    } catch (RuntimeException e) {
+      if (current == null) throw new IllegalStateException("Could not load JWKs", e);
+
+      log.error("Could not refresh JWKs, serving the last loaded keys", e);
+      var retained = current.retainedAt(Instant.now());
+      snapshot.compareAndSet(current, retained);
+      return retained;
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /** Rebuilds the snapshot from the database. */
+  private void refreshSnapshot() {
+    refreshLock.lock();
+    try {
+      loadSnapshot();
+    } catch (Exception e) {
+      log.error("Could not refresh JWKs", e);
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Loads, decrypts and parses the active key pairs and publishes them as the new snapshot.
+   *
+   * @return the new snapshot
+   */
+  private Snapshot loadSnapshot() {
     var cutoffTime =
         ZonedDateTime.now(ZoneOffset.UTC).minus(rotationPeriod).minus(deprecationPeriod);
-    return keyPairService.findActiveKeyPairs(cutoffTime);
+    var keyPairs = keyPairService.findActiveKeyPairs(cutoffTime);
+    var latest = keyPairs.stream().max(Comparator.comparing(KeyPair::getCreatedAt)).orElse(null);
+    var keys =
+        keyPairs.stream()
+            .filter(keyPair -> keyPair.getPairType().equals(keyPairGenerator.type()))
+            .sorted(Comparator.comparing(KeyPair::getCreatedAt).reversed())
+            .map(this::buildJwk)
+            .filter(Objects::nonNull)
+            .toList();
+    var json = new JWKSet(keys).toString();
+    var publicJwkSet =
+        new PublicJwkSet(
+            json.getBytes(StandardCharsets.UTF_8),
+            String.format("\"%s\"", hashingService.hash(json)));
+
+    MDC.put("keys", String.valueOf(keys.size()));
+    log.debug("Refreshed JWK snapshot");
+    MDC.clear();
+
+    var next =
+        new Snapshot(
+            keys,
+            publicJwkSet,
+            latest != null ? latest.getId() : null,
+            latest != null ? latest.getPairType() : null,
+            Instant.now());
+    snapshot.set(next);
+    return next;
   }
 
   /**
@@ -30,17 +30,13 @@ package com.asc.authorization.application.security.provider;
 import com.asc.authorization.application.exception.authentication.AuthenticationProcessingException;
 import com.asc.authorization.application.security.authority.TenantAuthority;
 import com.asc.authorization.application.security.error.AuthenticationError;
+import com.asc.authorization.application.security.service.AscIdentityContextService;
 import com.asc.authorization.application.security.service.CacheableRegisteredClientQueryService;
-import com.asc.common.application.client.AscApiClient;
-import com.asc.common.application.transfer.response.AscPersonResponse;
-import com.asc.common.application.transfer.response.AscSettingsResponse;
-import com.asc.common.application.transfer.response.AscTenantResponse;
 import com.asc.common.core.domain.value.enums.AuditCode;
 import com.asc.common.service.ports.output.message.publisher.AuditMessagePublisher;
 import com.asc.common.service.transfer.message.AuditMessage;
 import com.asc.common.utilities.HttpUtils;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
@@ -71,7 +67,7 @@ public class AscCodeAuthenticationProvider implements AuthenticationProvider {
   private String serviceName;
 
   private final HttpUtils httpUtils;
-  private final AscApiClient apiClient;
+  private final AscIdentityContextService identityContextService;
   private final AuditMessagePublisher auditMessagePublisher;
   private final CacheableRegisteredClientQueryService cacheableRegisteredClientQueryService;
 
@@ -134,9 +130,9 @@ public class AscCodeAuthenticationProvider implements AuthenticationProvider {
       var uri = URI.create(address);
       var cookie = String.format("%s=%s", authCookie.getName(), authCookie.getValue());
 
-      var meFuture = CompletableFuture.supplyAsync(() -> apiClient.getMe(uri, cookie));
-      var tenantFuture = CompletableFuture.supplyAsync(() -> apiClient.getTenant(uri, cookie));
-      var settingsFuture = CompletableFuture.supplyAsync(() -> apiClient.getSettings(uri, cookie));
+      var meFuture = identityContextService.getMe(request, uri, cookie);
+      var tenantFuture = identityContextService.getTenant(request, uri, cookie);
+      var settingsFuture = identityContextService.getSettings(request, uri, cookie);
 
       CompletableFuture.allOf(clientFuture, meFuture, tenantFuture, settingsFuture).join();
 
@@ -166,8 +162,6 @@ public class AscCodeAuthenticationProvider implements AuthenticationProvider {
             AuthenticationError.CLIENT_PERMISSION_DENIED_ERROR,
             "Client is not public and does not belong to current user's tenant");
 
-      setRequestAttributes(request, me.getResponse(), tenantResponse, settings.getResponse());
-
       var authenticationToken =
           new UsernamePasswordAuthenticationToken(
               me.getResponse().getId(),
@@ -202,24 +196,6 @@ public class AscCodeAuthenticationProvider implements AuthenticationProvider {
     }
   }
 
-  /**
-   * Sets the request attributes for person, tenant, and settings.
-   *
-   * @param request the HTTP request.
-   * @param person the authenticated user.
-   * @param tenant the tenant information.
-   * @param settings the settings information.
-   */
-  private void setRequestAttributes(
-      HttpServletRequest request,
-      AscPersonResponse person,
-      AscTenantResponse tenant,
-      AscSettingsResponse settings) {
-    request.setAttribute("person", person);
-    request.setAttribute("tenant", tenant);
-    request.setAttribute("settings", settings);
-  }
-
   /**
    * Checks if this AuthenticationProvider supports the provided authentication type.
    *
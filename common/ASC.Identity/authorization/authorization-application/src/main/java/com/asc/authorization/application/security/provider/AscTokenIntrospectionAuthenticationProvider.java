@@ -27,12 +27,20 @@
 
 package com.asc.authorization.application.security.provider;
 
+import com.asc.authorization.application.security.jwks.KeyPairRepositoryJWKSource;
+import com.asc.authorization.application.security.service.AscTokenRevocationService;
+import com.asc.authorization.application.security.service.RegisteredClientAccessibilityService;
+import com.asc.common.utilities.crypto.HashingService;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import jakarta.annotation.PostConstruct;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.Authentication;
@@ -41,12 +49,17 @@ import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.OAuth2Token;
 import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
 import org.springframework.security.oauth2.core.converter.ClaimConversionService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2TokenIntrospection;
 import org.springframework.security.oauth2.server.authorization.authentication.OAuth2TokenIntrospectionAuthenticationToken;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -56,6 +69,11 @@ import org.springframework.util.CollectionUtils;
  * <p>This class implements {@link AuthenticationProvider} to authenticate token introspection
  * requests by validating the provided token against the stored authorizations and registered
  * clients.
+ *
+ * <p>When stateless introspection is enabled, JWT access tokens are verified against the cached JWK
+ * set and their expiry, then checked against the revocation set and the client's accessibility.
+ * Only JWTs marked as access tokens are introspected this way; opaque tokens, tokens that are not
+ * valid JWTs and JWTs without the marker, such as ID tokens, fall back to the database lookup.
  */
 @Slf4j
 @Component
@@ -69,6 +87,21 @@ public class AscTokenIntrospectionAuthenticationProvider implements Authenticati
   private final RegisteredClientRepository registeredClientRepository;
 
   private final OAuth2AuthorizationService authorizationService;
+  private final RegisteredClientAccessibilityService registeredClientAccessibilityService;
+  private final AscTokenRevocationService tokenRevocationService;
+  private final HashingService hashingService;
+  private final JWKSource<SecurityContext> jwkSource;
+
+  @Value("${spring.security.oauth2.introspection.stateless-jwt:false}")
+  private boolean statelessJwtIntrospection;
+
+  private JwtDecoder jwtDecoder;
+
+  /** Initializes the JWT decoder backed by the cached JWK set. */
+  @PostConstruct
+  public void init() {
+    jwtDecoder = OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+  }
 
   /**
    * Authenticates the provided token introspection request.
@@ -83,6 +116,21 @@ public class AscTokenIntrospectionAuthenticationProvider implements Authenticati
     var tokenIntrospectionAuthentication =
         (OAuth2TokenIntrospectionAuthenticationToken) authentication;
 
+    if (statelessJwtIntrospection && isJwt(tokenIntrospectionAuthentication.getToken())) {
+      try {
+        var result = introspectJwt(tokenIntrospectionAuthentication);
+        if (result != null) return result;
+      } catch (JwtValidationException e) {
+        log.trace("Did not introspect token since JWT validation failed");
+        return new OAuth2TokenIntrospectionAuthenticationToken(
+            tokenIntrospectionAuthentication.getToken(),
+            authentication,
+            OAuth2TokenIntrospection.builder().build());
+      } catch (JwtException e) {
+        log.debug("Could not decode token as a JWT, falling back to stored authorizations");
+      }
+    }
+
     var authorization =
         authorizationService.findByToken(tokenIntrospectionAuthentication.getToken(), null);
     if (authorization == null) {
@@ -123,6 +171,77 @@ public class AscTokenIntrospectionAuthenticationProvider implements Authenticati
     return OAuth2TokenIntrospectionAuthenticationToken.class.isAssignableFrom(authentication);
   }
 
+  /**
+   * Introspects a self-contained JWT access token without loading its authorization.
+   *
+   * @param tokenIntrospectionAuthentication the introspection request
+   * @return an introspection result, the original request if the token is not accessible, or null
+   *     if the token is not marked as an access token and has to be looked up
+   * @throws JwtException if the token could not be decoded or validated
+   */
+  private Authentication introspectJwt(
+      OAuth2TokenIntrospectionAuthenticationToken tokenIntrospectionAuthentication) {
+    var token = tokenIntrospectionAuthentication.getToken();
+    var jwt = jwtDecoder.decode(token);
+    if (!KeyPairRepositoryJWKSource.ACCESS_TOKEN_USE.equals(
+        jwt.getClaimAsString(KeyPairRepositoryJWKSource.TOKEN_USE_CLAIM))) {
+      log.debug("Token is not marked as an access token, falling back to stored authorizations");
+      return null;
+    }
+
+    var clientId = jwt.getClaimAsString("cid");
+    if (tokenRevocationService.isRevoked(hashingService.hash(token))
+        || (clientId != null
+            && tokenRevocationService.isRevoked(clientId, jwt.getSubject(), jwt.getIssuedAt()))) {
+      log.trace("Did not introspect token since it has been revoked");
+      return new OAuth2TokenIntrospectionAuthenticationToken(
+          token, tokenIntrospectionAuthentication, OAuth2TokenIntrospection.builder().build());
+    }
+
+    var tenantId = jwt.getClaim("tid") instanceof Number tid ? tid.intValue() : 0;
+    if (clientId == null
+        || !registeredClientAccessibilityService.validateClientAccessibility(clientId, tenantId)) {
+      log.debug("Did not authenticate token introspection request since client is not accessible");
+      return tokenIntrospectionAuthentication;
+    }
+
+    log.trace("Authenticated token introspection request without stored authorization");
+
+    return new OAuth2TokenIntrospectionAuthenticationToken(
+        token, tokenIntrospectionAuthentication, withJwtClaims(jwt, clientId));
+  }
+
+  /**
+   * Checks whether the given token looks like a compact serialized JWS.
+   *
+   * @param token the token value
+   * @return true if the token has three dot-separated parts, false otherwise
+   */
+  private static boolean isJwt(String token) {
+    var first = token.indexOf('.');
+    if (first < 0) return false;
+    var second = token.indexOf('.', first + 1);
+    return second > 0 && token.indexOf('.', second + 1) < 0;
+  }
+
+  /**
+   * Constructs an {@link OAuth2TokenIntrospection} object from the claims of a verified JWT.
+   *
+   * @param jwt the verified JWT
+   * @param clientId the client the token was issued to
+   * @return the constructed {@code OAuth2TokenIntrospection} object
+   */
+  private static OAuth2TokenIntrospection withJwtClaims(Jwt jwt, String clientId) {
+    var tokenClaims =
+        OAuth2TokenIntrospection.withClaims(convertClaimsIfNecessary(jwt.getClaims()))
+            .active(true)
+            .clientId(clientId)
+            .tokenType(OAuth2AccessToken.TokenType.BEARER.getValue());
+    if (jwt.getIssuedAt() != null) tokenClaims.issuedAt(jwt.getIssuedAt());
+    if (jwt.getExpiresAt() != null) tokenClaims.expiresAt(jwt.getExpiresAt());
+    return tokenClaims.build();
+  }
+
   /**
    * Constructs an {@link OAuth2TokenIntrospection} object with the active token claims.
    *
@@ -0,0 +1,300 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.service;
+
+import com.asc.authorization.data.authorization.entity.AuthorizationEntity;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for caching authorization entities in the identity cluster.
+ *
+ * <p>Entities are cached by their composite primary key with token values still encrypted, so no
+ * plain token leaves the node that decrypts it. A second map indexes the primary key by
+ * authorization ID and by token hash. Every index hit is verified against the cached entity, so a
+ * stale index entry can only cause a miss.
+ *
+ * <p>Writes go through {@link #put(AuthorizationEntity)}, which never replaces a cached entity with
+ * an older one, while read misses only populate absent entries. Revocations issued by the
+ * registration service are enforced by the caller through the revocation index, which evicts
+ * revoked entries on access.
+ */
+@Slf4j
+@Service
+public class AscAuthorizationCacheService {
+  private static final String AUTHORIZATIONS_MAP = "authorizations";
+  private static final String AUTHORIZATION_KEYS_MAP = "authorizationKeys";
+  private static final String ID_PREFIX = "id:";
+  private static final String HASH_PREFIX = "hash:";
+  private static final int MAX_PUT_ATTEMPTS = 3;
+
+  private final IMap<String, AuthorizationEntity> authorizations;
+  private final IMap<String, String> authorizationKeys;
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Constructs a new AscAuthorizationCacheService.
+   *
+   * @param hazelcastInstance the Hazelcast instance of the identity cluster
+   * @param meterRegistry the registry to publish cache metrics to
+   */
+  public AscAuthorizationCacheService(
+      HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+    this.authorizations = hazelcastInstance.getMap(AUTHORIZATIONS_MAP);
+    this.authorizationKeys = hazelcastInstance.getMap(AUTHORIZATION_KEYS_MAP);
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Finds an authorization entity by its ID, loading and caching it on a miss.
+   *
+   * @param id the authorization ID
+   * @param loader loads the entity from the database
+   * @return an {@link Optional} containing the entity, or empty if not found
+   */
+  public Optional<AuthorizationEntity> findById(
+      String id, Supplier<Optional<AuthorizationEntity>> loader) {
+    return find("id", ID_PREFIX + id, e -> id.equals(e.getId()), loader);
+  }
+
+  /**
+   * Finds an authorization entity by a token hash, loading and caching it on a miss.
+   *
+   * @param hashedToken the hash of the token value
+   * @param matcher verifies that a cached entity holds the token in the expected column
+   * @param loader loads the entity from the database
+   * @return an {@link Optional} containing the entity, or empty if not found
+   */
+  public Optional<AuthorizationEntity> findByTokenHash(
+      String hashedToken,
+      Predicate<AuthorizationEntity> matcher,
+      Supplier<Optional<AuthorizationEntity>> loader) {
+    if (hashedToken == null) return loader.get();
+    return find("token", HASH_PREFIX + hashedToken, matcher, loader);
+  }
+
+  /**
+   * Returns the cached version of an authorization entity without loading it on a miss.
+   *
+   * @param entity an entity carrying the composite primary key
+   * @return the cached entity, or null if not cached
+   */
+  public AuthorizationEntity peek(AuthorizationEntity entity) {
+    try {
+      return authorizations.get(primaryKey(entity));
+    } catch (Exception e) {
+      log.warn("Could not read authorization cache", e);
+      return null;
+    }
+  }
+
+  /**
+   * Caches a saved authorization entity unless a newer version is already cached. If the entry
+   * keeps changing concurrently, it is evicted rather than left in an unknown state.
+   *
+   * @param entity the saved entity with encrypted token values
+   */
+  public void put(AuthorizationEntity entity) {
+    var key = primaryKey(entity);
+    try {
+      var stored = false;
+      for (var attempt = 0; attempt < MAX_PUT_ATTEMPTS && !stored; attempt++) {
+        var current = authorizations.get(key);
+        if (current == null) stored = authorizations.putIfAbsent(key, entity) == null;
+        else stored = isNewer(current, entity) || authorizations.replace(key, current, entity);
+      }
+
+      if (!stored) {
+        evict(key, "contention");
+        return;
+      }
+
+      index(key, entity);
+    } catch (Exception e) {
+      log.warn("Could not cache authorization", e);
+      evict(key, "error");
+    }
+  }
+
+  /**
+   * Evicts an authorization entity from the cache.
+   *
+   * @param id the composite primary key of the authorization
+   * @param cause the reason for the eviction, used as a metric tag
+   */
+  public void evict(AuthorizationEntity.AuthorizationId id, String cause) {
+    evict(
+        primaryKey(id.getRegisteredClientId(), id.getPrincipalId(), id.getAuthorizationGrantType()),
+        cause);
+  }
+
+  /**
+   * Evicts an authorization entity from the cache.
+   *
+   * @param entity the authorization entity
+   * @param cause the reason for the eviction, used as a metric tag
+   */
+  public void evict(AuthorizationEntity entity, String cause) {
+    evict(primaryKey(entity), cause);
+  }
+
+  /**
+   * Looks up an entity through the index, falling back to the loader on a miss.
+   *
+   * @param lookup the lookup kind, used as a metric tag
+   * @param indexKey the index key
+   * @param matcher verifies that the cached entity matches the lookup
+   * @param loader loads the entity from the database
+   * @return an {@link Optional} containing the entity, or empty if not found
+   */
+  private Optional<AuthorizationEntity> find(
+      String lookup,
+      String indexKey,
+      Predicate<AuthorizationEntity> matcher,
+      Supplier<Optional<AuthorizationEntity>> loader) {
+    try {
+      var key = authorizationKeys.get(indexKey);
+      var cached = key != null ? authorizations.get(key) : null;
+      if (cached != null && matcher.test(cached)) {
+        meterRegistry
+            .counter("authorization.cache.gets", "lookup", lookup, "result", "hit")
+            .increment();
+        return Optional.of(cached);
+      }
+    } catch (Exception e) {
+      log.warn("Could not read authorization cache", e);
+    }
+
+    meterRegistry
+        .counter("authorization.cache.gets", "lookup", lookup, "result", "miss")
+        .increment();
+
+    var loaded = loader.get();
+    loaded.ifPresent(this::populate);
+    return loaded;
+  }
+
+  /**
+   * Caches an entity loaded from the database if it is not cached yet.
+   *
+   * @param entity the loaded entity with encrypted token values
+   */
+  private void populate(AuthorizationEntity entity) {
+    var key = primaryKey(entity);
+    try {
+      authorizations.putIfAbsent(key, entity);
+      index(key, entity);
+    } catch (Exception e) {
+      log.warn("Could not cache authorization", e);
+    }
+  }
+
+  /**
+   * Indexes the entity's primary key by its ID and token hashes.
+   *
+   * @param key the composite primary key
+   * @param entity the authorization entity
+   */
+  private void index(String key, AuthorizationEntity entity) {
+    if (entity.getId() != null) authorizationKeys.set(ID_PREFIX + entity.getId(), key);
+    Stream.of(
+            entity.getStateHash(),
+            entity.getAuthorizationCodeHash(),
+            entity.getAccessTokenHash(),
+            entity.getRefreshTokenHash())
+        .filter(Objects::nonNull)
+        .forEach(hash -> authorizationKeys.set(HASH_PREFIX + hash, key));
+  }
+
+  /**
+   * Removes the entity stored under the given key.
+   *
+   * @param key the composite primary key
+   * @param cause the reason for the eviction, used as a metric tag
+   */
+  private void evict(String key, String cause) {
+    try {
+      authorizations.delete(key);
+      meterRegistry.counter("authorization.cache.evictions", "cause", cause).increment();
+
+      MDC.put("cause", cause);
+      log.debug("Evicted cached authorization");
+      MDC.clear();
+    } catch (Exception e) {
+      log.warn("Could not evict cached authorization", e);
+    }
+  }
+
+  /**
+   * Checks whether the cached entity was modified after the candidate.
+   *
+   * @param current the cached entity
+   * @param candidate the entity about to be cached
+   * @return true if the cached entity is newer, false otherwise
+   */
+  private boolean isNewer(AuthorizationEntity current, AuthorizationEntity candidate) {
+    return current.getModifiedAt() != null
+        && (candidate.getModifiedAt() == null
+            || current.getModifiedAt().isAfter(candidate.getModifiedAt()));
+  }
+
+  /**
+   * Builds the cache key of an entity from its composite primary key.
+   *
+   * @param entity the authorization entity
+   * @return the cache key
+   */
+  private String primaryKey(AuthorizationEntity entity) {
+    return primaryKey(
+        entity.getRegisteredClientId(),
+        entity.getPrincipalId(),
+        entity.getAuthorizationGrantType());
+  }
+
+  /**
+   * Builds the cache key of a composite primary key.
+   *
+   * @param registeredClientId the registered client ID
+   * @param principalId the principal ID
+   * @param authorizationGrantType the authorization grant type
+   * @return the cache key
+   */
+  private String primaryKey(
+      String registeredClientId, String principalId, String authorizationGrantType) {
+    return String.format("%s:%s:%s", registeredClientId, authorizationGrantType, principalId);
+  }
+}
@@ -0,0 +1,174 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.service;
+
+import com.asc.authorization.data.authorization.repository.JpaAuthorizationRepository;
+import com.asc.common.data.consent.repository.JpaConsentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for deleting expired and invalidated authorizations and invalidated consents.
+ *
+ * <p>Rows are deleted in bounded, key-ordered chunks, each in its own short transaction, with a
+ * pause between chunks so that concurrent token issuance is never blocked for long. A run stops
+ * once nothing is left or its time budget is spent, and only one node runs at a time.
+ *
+ * <p>Retention deletes rows instead of dropping partitions because {@code identity_authorizations}
+ * cannot be partitioned by time: MySQL requires every unique key of a partitioned table to contain
+ * the partitioning column and does not support foreign keys on partitioned tables, while
+ * authorizations are upserted by their client, principal and grant type, looked up by their unique
+ * ID and removed together with their client.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AscAuthorizationReaperService {
+  private final PlatformTransactionManager transactionManager;
+  private final JpaAuthorizationRepository jpaAuthorizationRepository;
+  private final JpaConsentRepository jpaConsentRepository;
+  private final MeterRegistry meterRegistry;
+
+  private final AtomicLong backlog = new AtomicLong();
+  private final AtomicLong rowsPerSecond = new AtomicLong();
+
+  @Value("${spring.security.oauth2.authorization.reaper.chunk-size:1000}")
+  private int chunkSize;
+
+  @Value("${spring.security.oauth2.authorization.reaper.pause:PT0.1S}")
+  private Duration pause;
+
+  @Value("${spring.security.oauth2.authorization.reaper.max-duration:PT10M}")
+  private Duration maxDuration;
+
+  @Value("${spring.security.oauth2.authorization.reaper.grace-period:PT1H}")
+  private Duration gracePeriod;
+
+  /** Registers the backlog and throughput gauges. */
+  @PostConstruct
+  public void init() {
+    Gauge.builder("authorization.reaper.backlog", backlog, AtomicLong::get)
+        .description("Rows waiting to be reaped as of the last run")
+        .register(meterRegistry);
+    Gauge.builder("authorization.reaper.rows.per.second", rowsPerSecond, AtomicLong::get)
+        .description("Deletion throughput of the last run")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Deletes expired and invalidated authorizations and invalidated consents. Authorizations are
+   * only considered expired once all of their tokens have been expired for the grace period.
+   */
+  @Scheduled(
+      initialDelayString = "${spring.security.oauth2.authorization.reaper.initial-delay:PT5M}",
+      fixedDelayString = "${spring.security.oauth2.authorization.reaper.interval:PT15M}")
+  @SchedulerLock(name = "authorization_reaper_task", lockAtMostFor = "PT15M")
+  public void reap() {
+    var cutoff = ZonedDateTime.now().minus(gracePeriod);
+    var deadline = System.nanoTime() + maxDuration.toNanos();
+    var startedAt = System.nanoTime();
+
+    try {
+      backlog.set(
+          jpaAuthorizationRepository.countReapableAuthorizations(cutoff)
+              + jpaConsentRepository.countInvalidatedConsents());
+
+      var deleted =
+          reap(
+              "expired_authorizations",
+              limit -> jpaAuthorizationRepository.deleteExpiredAuthorizations(cutoff, limit),
+              deadline);
+      deleted +=
+          reap(
+              "invalidated_authorizations",
+              jpaAuthorizationRepository::deleteInvalidatedAuthorizations,
+              deadline);
+      deleted +=
+          reap("invalidated_consents", jpaConsentRepository::deleteInvalidatedConsents, deadline);
+
+      var elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+      rowsPerSecond.set(deleted * 1000 / Math.max(1, elapsed.toMillis()));
+      backlog.set(Math.max(0, backlog.get() - deleted));
+
+      MDC.put("deleted", String.valueOf(deleted));
+      MDC.put("elapsed", elapsed.toString());
+      MDC.put("backlog", String.valueOf(backlog.get()));
+      log.info("Reaped expired and invalidated authorizations");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log.error("Could not reap expired and invalidated authorizations", e);
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Repeatedly deletes chunks until a chunk comes back short or the deadline has passed.
+   *
+   * @param target the kind of rows being deleted, used as a metric tag
+   * @param deleteChunk deletes up to the given number of rows and returns the deleted count
+   * @param deadline the {@link System#nanoTime()} after which no further chunk is started
+   * @return the total number of deleted rows
+   * @throws InterruptedException if interrupted while pausing between chunks
+   */
+  private long reap(String target, IntUnaryOperator deleteChunk, long deadline)
+      throws InterruptedException {
+    var counter = meterRegistry.counter("authorization.reaper.deleted", "target", target);
+    var template = new TransactionTemplate(transactionManager);
+    template.setTimeout(10);
+
+    var total = 0L;
+    while (System.nanoTime() < deadline) {
+      var deleted = template.execute(status -> deleteChunk.applyAsInt(chunkSize));
+      if (deleted == null || deleted == 0) break;
+
+      total += deleted;
+      counter.increment(deleted);
+      if (deleted < chunkSize) break;
+
+      Thread.sleep(pause.toMillis());
+    }
+
+    return total;
+  }
+}
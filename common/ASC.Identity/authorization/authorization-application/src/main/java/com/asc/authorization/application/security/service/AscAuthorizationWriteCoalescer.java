@@ -0,0 +1,248 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.service;
+
+import com.asc.authorization.application.mapper.AuthorizationMapper;
+import com.asc.authorization.data.authorization.entity.AuthorizationEntity;
+import com.asc.authorization.data.authorization.repository.JdbcAuthorizationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for coalescing authorization saves from concurrent requests into JDBC batch upserts.
+ *
+ * <p>Saves are queued and written by a single worker in one transaction per batch. A batch is
+ * flushed once it holds {@code max-batch-size} saves or once its first save has waited for {@code
+ * max-delay}, whichever comes first. Callers wait for the commit of their batch, so an issuing
+ * request always reads its own write. A caller that times out withdraws its save if the worker has
+ * not picked it up yet, and otherwise waits for the outcome of the batch it is part of, so a save
+ * is never written after its caller has failed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AscAuthorizationWriteCoalescer {
+  private final PlatformTransactionManager transactionManager;
+  private final AuthorizationMapper authorizationMapper;
+  private final JdbcAuthorizationRepository jdbcAuthorizationRepository;
+  private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+  @Value("${spring.security.oauth2.authorization.write-coalescing.enabled:false}")
+  private boolean enabled;
+
+  @Value("${spring.security.oauth2.authorization.write-coalescing.max-batch-size:64}")
+  private int maxBatchSize;
+
+  @Value("${spring.security.oauth2.authorization.write-coalescing.max-delay:PT0.005S}")
+  private Duration maxDelay;
+
+  private volatile boolean running;
+  private Thread worker;
+
+  /**
+   * A save waiting to be flushed.
+   *
+   * @param entity the entity to write, with encrypted token values
+   * @param result completes with the previously stored state of the entity, or null if none
+   */
+  private record PendingWrite(
+      AuthorizationEntity entity, CompletableFuture<AuthorizationEntity> result) {}
+
+  /** Starts the flushing worker if write coalescing is enabled. */
+  @PostConstruct
+  public void start() {
+    if (!enabled) return;
+
+    running = true;
+    worker = Thread.ofPlatform().name("authorization-write-coalescer").daemon().start(this::run);
+    log.info("Authorization write coalescing enabled with batches of up to {}", maxBatchSize);
+  }
+
+  /** Stops the flushing worker once all queued saves are written. */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (worker == null) return;
+
+    running = false;
+    worker.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  /**
+   * Checks whether saves should be routed through this coalescer.
+   *
+   * @return true if write coalescing is enabled, false otherwise
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Writes an authorization entity with the next batch and waits for its commit. Its tenant ID is
+   * merged from the stored state the same way as on the transactional path.
+   *
+   * <p>If the batch does not commit within the maximum flush latency plus the transaction timeout,
+   * the save is withdrawn from the queue and a {@link TimeoutException} is thrown. A save the
+   * worker has already picked up cannot be withdrawn, so its real outcome is awaited instead.
+   *
+   * @param entity the entity to write, with encrypted token values
+   * @return the previously stored state of the entity, or null if it did not exist
+   * @throws Exception if the save was not written
+   */
+  public AuthorizationEntity write(AuthorizationEntity entity) throws Exception {
+    if (!running) throw new IllegalStateException("Authorization write coalescer is not running");
+
+    var write = new PendingWrite(entity, new CompletableFuture<>());
+    queue.add(write);
+    try {
+      return getResult(write, maxDelay.plusSeconds(2));
+    } catch (TimeoutException e) {
+      if (queue.remove(write)) throw e;
+
+      log.warn("Coalesced authorization save is late, waiting for its batch to complete");
+      return getResult(write, null);
+    }
+  }
+
+  /**
+   * Waits for the outcome of a queued save, unwrapping the cause of a failed batch.
+   *
+   * @param write the queued save
+   * @param timeout the longest time to wait, or null to wait for the batch to complete
+   * @return the previously stored state of the entity, or null if it did not exist
+   * @throws Exception if the save was not written or the timeout elapsed
+   */
+  private AuthorizationEntity getResult(PendingWrite write, Duration timeout) throws Exception {
+    try {
+      return timeout != null
+          ? write.result().get(timeout.toMillis(), TimeUnit.MILLISECONDS)
+          : write.result().get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause) throw cause;
+      throw e;
+    }
+  }
+
+  /** Collects queued saves into batches bounded by size and delay and flushes them. */
+  private void run() {
+    var batch = new ArrayList<PendingWrite>(maxBatchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        var first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) continue;
+
+        batch.add(first);
+        var deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < maxBatchSize) {
+          var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) break;
+          batch.add(next);
+        }
+
+        flush(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Writes a batch in a single transaction and completes its futures after commit.
+   *
+   * @param batch the saves to write, in submission order
+   */
+  private void flush(List<PendingWrite> batch) {
+    try {
+      var template = new TransactionTemplate(transactionManager);
+      template.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+      template.setTimeout(2);
+      var previous =
+          template.execute(
+              status -> {
+                var stored =
+                    new HashMap<>(
+                        jdbcAuthorizationRepository.findAllByIds(
+                            batch.stream().map(w -> toId(w.entity())).distinct().toList()));
+
+                var states = new ArrayList<AuthorizationEntity>(batch.size());
+                var entities = new ArrayList<AuthorizationEntity>(batch.size());
+                for (var write : batch) {
+                  var id = toId(write.entity());
+                  var state = stored.get(id);
+                  var entity =
+                      authorizationMapper.merge(
+                          state != null ? state : write.entity(), write.entity());
+                  stored.put(id, entity);
+                  states.add(state);
+                  entities.add(entity);
+                }
+
+                jdbcAuthorizationRepository.upsertAll(entities);
+                return states;
+              });
+
+      log.debug("Flushed {} coalesced authorization saves", batch.size());
+      for (var i = 0; i < batch.size(); i++) batch.get(i).result().complete(previous.get(i));
+    } catch (Exception e) {
+      log.error("Could not flush coalesced authorization saves", e);
+      batch.forEach(w -> w.result().completeExceptionally(e));
+    }
+  }
+
+  /**
+   * Builds the composite primary key of an entity.
+   *
+   * @param entity the authorization entity
+   * @return the composite primary key
+   */
+  private AuthorizationEntity.AuthorizationId toId(AuthorizationEntity entity) {
+    return new AuthorizationEntity.AuthorizationId(
+        entity.getRegisteredClientId(),
+        entity.getPrincipalId(),
+        entity.getAuthorizationGrantType());
+  }
+}
@@ -28,15 +28,30 @@
 package com.asc.authorization.application.security.service;
 
 import com.asc.authorization.application.mapper.ClientMapper;
+import com.asc.common.data.client.entity.ClientEntity;
 import com.asc.common.data.client.repository.JpaClientRepository;
+import com.asc.common.service.transfer.response.ClientAccessResponse;
 import com.asc.common.service.transfer.response.ClientResponse;
 import com.asc.common.utilities.crypto.EncryptionService;
+import com.asc.common.utilities.crypto.SecretHashingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-/** Service class for handling cached operations related to registered clients. */
+/**
+ * Service class for handling cached operations related to registered clients.
+ *
+ * <p>Lookups are synchronized, so concurrent misses for a client share one load and hot entries are
+ * refreshed ahead of their expiry. Unknown clients are cached as null as well.
+ *
+ * <p>Unless client secrets are verified in plain mode, cached clients carry the keyed hash of their
+ * secret instead of the plain secret. Clients stored before hashes were introduced have their
+ * secret decrypted and hashed once per cache load. Clients are cached apart from the "clients"
+ * cache of the registration service, which holds plain secrets for the same keys.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -44,6 +59,10 @@ public class AscCacheableClientService implements CacheableRegisteredClientQuery
   private final ClientMapper clientMapper;
   private final JpaClientRepository jpaClientRepository;
   private final EncryptionService encryptionService;
+  private final SecretHashingService secretHashingService;
+
+  @Value("${spring.security.oauth2.client-secret.verification:plain}")
+  private String secretVerification;
 
   /**
    * Finds a client by its ID with caching support.
@@ -51,14 +70,12 @@ public class AscCacheableClientService implements CacheableRegisteredClientQuery
    * @param id the ID of the client.
    * @return the ClientResponse containing the client's details or null.
    */
-  @Cacheable(value = "clients", key = "#id", unless = "#result == null")
+  @Cacheable(value = "registeredClients", key = "#id", sync = true)
   public ClientResponse findById(String id) {
     var result = jpaClientRepository.findById(id);
     if (result.isEmpty()) return null;
 
-    var client = clientMapper.toClientResponse(result.get());
-    client.setClientSecret(encryptionService.decrypt(client.getClientSecret()));
-    return client;
+    return toClientResponse(result.get());
   }
 
   /**
@@ -67,13 +84,59 @@ public class AscCacheableClientService implements CacheableRegisteredClientQuery
    * @param clientId the client ID of the client.
    * @return the ClientResponse containing the client's details or null.
    */
-  @Cacheable(value = "clients", key = "#clientId", unless = "#result == null")
+  @Cacheable(value = "registeredClients", key = "#clientId", sync = true)
   public ClientResponse findByClientId(String clientId) {
     var result = jpaClientRepository.findClientByClientId(clientId);
     if (result.isEmpty()) return null;
 
-    var client = clientMapper.toClientResponse(result.get());
-    client.setClientSecret(encryptionService.decrypt(client.getClientSecret()));
+    return toClientResponse(result.get());
+  }
+
+  /**
+   * Finds the access details of a client by its client ID with caching support. Only the columns
+   * and collections needed for validation are read, so the logo and description are never loaded.
+   *
+   * @param clientId the client ID of the client.
+   * @return the ClientAccessResponse containing the client's access details or null.
+   */
+  @Transactional(readOnly = true)
+  @Cacheable(value = "clientAccess", key = "#clientId", sync = true)
+  public ClientAccessResponse findAccessByClientId(String clientId) {
+    var result = jpaClientRepository.findAccessProjectionByClientId(clientId);
+    if (result.isEmpty()) return null;
+
+    return clientMapper.toClientAccessResponse(
+        result.get(),
+        jpaClientRepository.findScopeNamesByClientId(clientId),
+        jpaClientRepository.findRedirectUrisByClientId(clientId),
+        jpaClientRepository.findAuthenticationMethodsByClientId(clientId));
+  }
+
+  /**
+   * Converts a client entity to a client response carrying the secret used for authentication.
+   *
+   * @param entity the client entity.
+   * @return the ClientResponse with either the plain or the hashed client secret.
+   */
+  private ClientResponse toClientResponse(ClientEntity entity) {
+    var client = clientMapper.toClientResponse(entity);
+    client.setClientSecret(
+        "plain".equalsIgnoreCase(secretVerification)
+            ? encryptionService.decrypt(entity.getClientSecret())
+            : hashSecret(entity.getClientSecretHash(), entity.getClientSecret()));
     return client;
   }
+
+  /**
+   * Returns the stored keyed hash of a client secret, falling back to decrypting and hashing the
+   * secret for clients which have no hash stored yet.
+   *
+   * @param clientSecretHash the stored keyed hash of the client secret, may be null.
+   * @param clientSecret the encrypted client secret.
+   * @return the keyed hash of the plain client secret.
+   */
+  private String hashSecret(String clientSecretHash, String clientSecret) {
+    if (clientSecretHash != null) return clientSecretHash;
+    return secretHashingService.hash(encryptionService.decrypt(clientSecret));
+  }
 }
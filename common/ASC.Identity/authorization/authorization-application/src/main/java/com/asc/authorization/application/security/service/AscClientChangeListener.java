@@ -0,0 +1,101 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.service;
+
+import com.asc.common.application.cache.TwoLevelCache;
+import com.asc.common.service.transfer.message.ClientChangedMessage;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.Message;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts registered clients from the client caches as soon as the registration service announces a
+ * committed change, so the caches do not depend on their time-to-live to pick up disabled, deleted
+ * or otherwise changed clients.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AscClientChangeListener {
+  private static final List<String> CLIENT_CACHES =
+      List.of("clients", "registeredClients", "clientAccess");
+
+  private final HazelcastInstance hazelcastInstance;
+  private final CacheManager cacheManager;
+  private final AscRegisteredClientService registeredClientService;
+  private UUID registration;
+
+  /** Subscribes to the client change topic. */
+  @PostConstruct
+  public void subscribe() {
+    registration =
+        hazelcastInstance
+            .<ClientChangedMessage>getTopic(ClientChangedMessage.TOPIC)
+            .addMessageListener(this::onClientChanged);
+  }
+
+  /** Unsubscribes from the client change topic. */
+  @PreDestroy
+  public void unsubscribe() {
+    if (registration != null)
+      hazelcastInstance.getTopic(ClientChangedMessage.TOPIC).removeMessageListener(registration);
+  }
+
+  /**
+   * Evicts the changed client from the client caches and drops its memoized registered client.
+   * Every member receives the message, so local tiers are evicted without publishing the eviction
+   * once more.
+   *
+   * @param message the client changed message
+   */
+  private void onClientChanged(Message<ClientChangedMessage> message) {
+    var clientId = message.getMessageObject().getClientId();
+    try {
+      MDC.put("client_id", clientId);
+      for (var name : CLIENT_CACHES) {
+        var cache = cacheManager.getCache(name);
+        if (cache instanceof TwoLevelCache twoLevelCache) twoLevelCache.evictQuietly(clientId);
+        else if (cache != null) cache.evict(clientId);
+      }
+      registeredClientService.evictRegisteredClient(clientId);
+      log.debug("Evicted changed client from client caches");
+    } catch (Exception e) {
+      log.warn("Could not evict changed client from client caches", e);
+    } finally {
+      MDC.clear();
+    }
+  }
+}
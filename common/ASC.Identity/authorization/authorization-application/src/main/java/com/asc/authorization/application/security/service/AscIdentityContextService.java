@@ -0,0 +1,174 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.service;
+
+import com.asc.common.application.client.AscApiClient;
+import com.asc.common.application.transfer.response.AscPersonResponse;
+import com.asc.common.application.transfer.response.AscResponseWrapper;
+import com.asc.common.application.transfer.response.AscSettingsResponse;
+import com.asc.common.application.transfer.response.AscTenantResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves the ASC user, tenant and settings of the current request at most once per request.
+ *
+ * <p>Resolutions are kept as attributes of the request, so every converter, provider and service
+ * handling the same request shares them instead of calling the ASC API again. Fetches run
+ * asynchronously, so callers may still resolve several resources in parallel. Must be called on the
+ * thread handling the request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AscIdentityContextService {
+  private static final String ATTRIBUTE_PREFIX = AscIdentityContextService.class.getName() + ".";
+  private static final String ME = "me";
+  private static final String TENANT = "tenant";
+  private static final String SETTINGS = "settings";
+
+  private final AscApiClient apiClient;
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * An ASC resource resolved for a request, along with the cookie it was resolved with.
+   *
+   * @param cookie the cookie the resource was resolved with
+   * @param response the pending or completed response
+   * @param <T> the type of the resource
+   */
+  private record Resolution<T>(String cookie, CompletableFuture<AscResponseWrapper<T>> response) {}
+
+  /**
+   * Resolves the current user of the request.
+   *
+   * @param request the HTTP request
+   * @param base the base URI of the ASC API
+   * @param cookie the ASC authorization cookie
+   * @return the pending or completed user response
+   */
+  public CompletableFuture<AscResponseWrapper<AscPersonResponse>> getMe(
+      HttpServletRequest request, URI base, String cookie) {
+    return resolve(request, ME, cookie, () -> apiClient.getMe(base, cookie));
+  }
+
+  /**
+   * Resolves the tenant of the request.
+   *
+   * @param request the HTTP request
+   * @param base the base URI of the ASC API
+   * @param cookie the ASC authorization cookie
+   * @return the pending or completed tenant response
+   */
+  public CompletableFuture<AscResponseWrapper<AscTenantResponse>> getTenant(
+      HttpServletRequest request, URI base, String cookie) {
+    return resolve(request, TENANT, cookie, () -> apiClient.getTenant(base, cookie));
+  }
+
+  /**
+   * Resolves the tenant settings of the request.
+   *
+   * @param request the HTTP request
+   * @param base the base URI of the ASC API
+   * @param cookie the ASC authorization cookie
+   * @return the pending or completed settings response
+   */
+  public CompletableFuture<AscResponseWrapper<AscSettingsResponse>> getSettings(
+      HttpServletRequest request, URI base, String cookie) {
+    return resolve(request, SETTINGS, cookie, () -> apiClient.getSettings(base, cookie));
+  }
+
+  /**
+   * Returns the tenant already resolved for the request without calling the ASC API.
+   *
+   * @param request the HTTP request
+   * @return the tenant, or empty if it has not been resolved successfully
+   */
+  public Optional<AscTenantResponse> getResolvedTenant(HttpServletRequest request) {
+    if (!(request.getAttribute(ATTRIBUTE_PREFIX + TENANT) instanceof Resolution<?> resolution)
+        || !resolution.response().isDone()
+        || resolution.response().isCompletedExceptionally()) return Optional.empty();
+
+    var tenant = resolution.response().join();
+    if (tenant == null || tenant.getStatusCode() != HttpStatus.OK.value()) return Optional.empty();
+    return Optional.ofNullable((AscTenantResponse) tenant.getResponse());
+  }
+
+  /**
+   * Returns the resolution of a resource kept by the request, or starts fetching the resource if
+   * the request has not resolved it with the same cookie yet.
+   *
+   * @param request the HTTP request
+   * @param resource the name of the resource
+   * @param cookie the ASC authorization cookie
+   * @param fetch fetches the resource from the ASC API
+   * @param <T> the type of the resource
+   * @return the pending or completed response
+   */
+  @SuppressWarnings("unchecked")
+  private <T> CompletableFuture<AscResponseWrapper<T>> resolve(
+      HttpServletRequest request,
+      String resource,
+      String cookie,
+      Supplier<AscResponseWrapper<T>> fetch) {
+    var attribute = ATTRIBUTE_PREFIX + resource;
+    if (request.getAttribute(attribute) instanceof Resolution<?> resolution
+        && Objects.equals(resolution.cookie(), cookie)
+        && !resolution.response().isCompletedExceptionally()) {
+      countResolution(resource, "reused");
+      return ((Resolution<T>) resolution).response();
+    }
+
+    log.debug("Fetching ASC {} for the current request", resource);
+    var response = CompletableFuture.supplyAsync(fetch);
+    request.setAttribute(attribute, new Resolution<>(cookie, response));
+    countResolution(resource, "fetched");
+    return response;
+  }
+
+  /**
+   * Records whether a resource was fetched from the ASC API or reused within the request.
+   *
+   * @param resource the name of the resource
+   * @param result fetched or reused
+   */
+  private void countResolution(String resource, String result) {
+    meterRegistry
+        .counter("authorization.asc.resolutions", "resource", resource, "result", result)
+        .increment();
+  }
+}
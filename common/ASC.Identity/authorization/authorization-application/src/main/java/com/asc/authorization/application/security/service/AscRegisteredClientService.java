@@ -30,6 +30,12 @@ package com.asc.authorization.application.security.service;
 import com.asc.authorization.application.exception.client.RegisteredClientPermissionException;
 import com.asc.authorization.application.mapper.ClientMapper;
 import com.asc.common.core.domain.exception.DomainNotFoundException;
+import com.asc.common.service.transfer.response.ClientResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
@@ -46,8 +52,43 @@ import org.springframework.stereotype.Repository;
 @RequiredArgsConstructor
 public class AscRegisteredClientService
     implements RegisteredClientRepository, RegisteredClientAccessibilityService {
+  private static final int MAX_MEMOIZED_CLIENTS = 10_000;
+  private static final Duration MEMOIZED_CLIENT_IDLE_TIME = Duration.ofHours(1);
+
   private final AscCacheableClientService cacheableClientService;
   private final ClientMapper clientMapper;
+  private final Cache<String, MemoizedClient> registeredClients =
+      Caffeine.newBuilder()
+          .maximumSize(MAX_MEMOIZED_CLIENTS)
+          .expireAfterAccess(MEMOIZED_CLIENT_IDLE_TIME)
+          .build();
+
+  /**
+   * A registered client built from a cached client, along with the state it was built from.
+   *
+   * @param version the optimistic locking version of the client
+   * @param modifiedOn the last modification time of the client
+   * @param clientSecret the client secret
+   * @param registeredClient the registered client
+   */
+  private record MemoizedClient(
+      Integer version,
+      ZonedDateTime modifiedOn,
+      String clientSecret,
+      RegisteredClient registeredClient) {
+
+    /**
+     * Checks whether the registered client was built from the current state of the client.
+     *
+     * @param client the cached client
+     * @return true if the registered client is current, false otherwise
+     */
+    private boolean isBuiltFrom(ClientResponse client) {
+      return Objects.equals(version, client.getVersion())
+          && Objects.equals(modifiedOn, client.getModifiedOn())
+          && Objects.equals(clientSecret, client.getClientSecret());
+    }
+  }
 
   /**
    * This method is not supported as the repository only supports read operations.
@@ -81,7 +122,7 @@ public class AscRegisteredClientService
         throw new RegisteredClientPermissionException(
             String.format("Client with id %s is disabled", id));
 
-      return clientMapper.toRegisteredClient(client);
+      return toRegisteredClient(client);
     } catch (Exception e) {
       log.warn("Could not find registered client", e);
       return null;
@@ -112,7 +153,7 @@ public class AscRegisteredClientService
         throw new RegisteredClientPermissionException(
             String.format("Client with client_id %s is disabled", clientId));
 
-      return clientMapper.toRegisteredClient(client);
+      return toRegisteredClient(client);
     } catch (Exception e) {
       log.warn("Could not get client by client_id", e);
       return null;
@@ -122,14 +163,47 @@ public class AscRegisteredClientService
   }
 
   /**
-   * Validates the accessibility of the client associated with the given tenant.
+   * Drops the memoized registered client for the given client ID.
+   *
+   * @param clientId the client ID of the registered client
+   */
+  public void evictRegisteredClient(String clientId) {
+    registeredClients.invalidate(clientId);
+  }
+
+  /**
+   * Returns the registered client for a cached client. Registered clients are immutable, so the
+   * instance built for a client is reused for as long as the client's version, modification time
+   * and secret stay the same.
+   *
+   * @param client the cached client
+   * @return the registered client
+   */
+  private RegisteredClient toRegisteredClient(ClientResponse client) {
+    var memoized = registeredClients.getIfPresent(client.getClientId());
+    if (memoized != null && memoized.isBuiltFrom(client)) return memoized.registeredClient();
+
+    var registeredClient = clientMapper.toRegisteredClient(client);
+    registeredClients.put(
+        client.getClientId(),
+        new MemoizedClient(
+            client.getVersion(),
+            client.getModifiedOn(),
+            client.getClientSecret(),
+            registeredClient));
+    return registeredClient;
+  }
+
+  /**
+   * Validates the accessibility of the client associated with the given tenant. Uses the slim
+   * cached client access details rather than the full client.
    *
    * @param clientId the id of the registered client
    * @param tenantId the tenant of the current caller to validate accessibility against
    * @return true if the client is accessible, false otherwise
    */
   public boolean validateClientAccessibility(String clientId, int tenantId) {
-    var client = cacheableClientService.findByClientId(clientId);
+    var client = cacheableClientService.findAccessByClientId(clientId);
 
     if (client == null) {
       log.warn("Registered client not found for client ID: {}", clientId);
@@ -142,7 +216,7 @@ public class AscRegisteredClientService
       return false;
     }
 
-    if (!client.isEnabled()) {
+    if (!client.isEnabled() || client.isInvalidated()) {
       log.warn("Client {} is disabled", client.getClientId());
       return false;
     }
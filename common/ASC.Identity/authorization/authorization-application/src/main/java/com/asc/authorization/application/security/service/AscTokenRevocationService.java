@@ -0,0 +1,86 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.service;
+
+import com.asc.common.service.ports.output.repository.TokenRevocationRepository;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for consulting and updating the cluster-wide token revocation index.
+ *
+ * <p>Self-contained JWT access tokens stay verifiable until they expire, and authorizations may be
+ * served from caches, so tokens which were invalidated, removed or superseded by a newer token for
+ * the same authorization are recorded here until their expiry. Revocations issued by the
+ * registration service for a client, or for a client and principal, are recorded in the same index.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AscTokenRevocationService {
+  private final TokenRevocationRepository tokenRevocationRepository;
+
+  /**
+   * Records a token hash as revoked until the token expires.
+   *
+   * @param tokenHash the hash of the revoked token
+   * @param expiresAt the expiry of the revoked token, or null if unknown
+   */
+  public void revoke(String tokenHash, Instant expiresAt) {
+    try {
+      tokenRevocationRepository.revokeToken(tokenHash, expiresAt);
+    } catch (Exception e) {
+      log.error("Could not record token revocation", e);
+    }
+  }
+
+  /**
+   * Checks whether the token with the given hash has been revoked.
+   *
+   * @param tokenHash the hash of the token
+   * @return true if the token has been revoked, false otherwise
+   */
+  public boolean isRevoked(String tokenHash) {
+    return tokenRevocationRepository.isTokenRevoked(tokenHash);
+  }
+
+  /**
+   * Checks whether an authorization issued at the given moment has been revoked for its client and
+   * principal, or for its whole client.
+   *
+   * @param clientId the registered client ID
+   * @param principalId the principal ID
+   * @param issuedAt the moment the most recent token of the authorization was issued
+   * @return true if the authorization has been revoked, false otherwise
+   */
+  public boolean isRevoked(String clientId, String principalId, Instant issuedAt) {
+    return tokenRevocationRepository.isAuthorizationRevoked(clientId, principalId, issuedAt);
+  }
+}
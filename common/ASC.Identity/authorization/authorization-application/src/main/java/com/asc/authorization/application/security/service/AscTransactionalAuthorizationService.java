@@ -4,18 +4,26 @@ import com.asc.authorization.application.exception.authorization.AuthorizationCl
 import com.asc.authorization.application.exception.authorization.AuthorizationPersistenceException;
 import com.asc.authorization.application.mapper.AuthorizationMapper;
 import com.asc.authorization.data.authorization.entity.AuthorizationEntity;
+import com.asc.authorization.data.authorization.repository.JdbcAuthorizationRepository;
 import com.asc.authorization.data.authorization.repository.JpaAuthorizationRepository;
 import com.asc.common.application.transfer.response.AscTenantResponse;
 import com.asc.common.utilities.crypto.EncryptionService;
 import com.asc.common.utilities.crypto.HashingService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.Cookie;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.OAuth2RefreshToken;
 import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
@@ -26,6 +34,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -36,15 +46,40 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 public class AscTransactionalAuthorizationService {
   private static final String CLIENT_STATE_COOKIE = "client_state";
 
-  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
   private final PlatformTransactionManager transactionManager;
 
   private final AuthorizationMapper authorizationMapper;
   private final EncryptionService encryptionService;
   private final HashingService hashingService;
   private final JpaAuthorizationRepository jpaAuthorizationRepository;
+  private final JdbcAuthorizationRepository jdbcAuthorizationRepository;
   private final RegisteredClientAccessibilityService registeredClientAccessibilityRepository;
   private final RegisteredClientRepository registeredClientRepository;
+  private final AscTokenRevocationService tokenRevocationService;
+  private final AscAuthorizationCacheService authorizationCacheService;
+  private final AscAuthorizationWriteCoalescer writeCoalescer;
+  private final AscIdentityContextService identityContextService;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${spring.security.oauth2.introspection.stateless-jwt:false}")
+  private boolean statelessIntrospection;
+
+  /**
+   * A previously issued token which may have to be revoked once it has been replaced.
+   *
+   * @param hash the hash of the token value
+   * @param expiresAt the expiry of the token, or null if unknown
+   */
+  private record IssuedToken(String hash, Instant expiresAt) {}
+
+  /**
+   * The outcome of persisting an authorization.
+   *
+   * @param entity the saved entity with encrypted token values
+   * @param supersededAccessToken the access token replaced by the save, or null if none
+   */
+  private record SavedAuthorization(
+      AuthorizationEntity entity, IssuedToken supersededAccessToken) {}
 
   /**
    * Saves an OAuth2 authorization.
@@ -59,46 +94,36 @@ public class AscTransactionalAuthorizationService {
 
       setClientStateCookie(authorization);
       var tenant = getTenantFromRequest();
-      var atokenFuture = encryptTokenAsync(authorization.getToken(OAuth2AccessToken.class));
-      var rtokenFuture = encryptTokenAsync(authorization.getToken(OAuth2RefreshToken.class));
-      var atoken = atokenFuture.get(2, TimeUnit.SECONDS);
-      var rtoken = rtokenFuture.get(2, TimeUnit.SECONDS);
-
-      var template = new TransactionTemplate(transactionManager);
-      template.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
-      template.setTimeout(2);
-      template.execute(
-          status -> {
-            try {
-              var existingAuthorizationOpt =
-                  jpaAuthorizationRepository
-                      .findByRegisteredClientIdAndPrincipalIdAndAuthorizationGrantType(
-                          authorization.getRegisteredClientId(),
-                          authorization.getPrincipalName(),
-                          authorization.getAuthorizationGrantType().getValue());
-
-              var mappedAuthorization = authorizationMapper.toEntity(authorization);
-              var entity =
-                  authorizationMapper.merge(
-                      existingAuthorizationOpt.orElseGet(() -> mappedAuthorization),
-                      authorizationMapper.toEntity(authorization));
-
-              entity.setAccessTokenHash(hashingService.hash(entity.getAccessTokenValue()));
-              entity.setRefreshTokenHash(hashingService.hash(entity.getRefreshTokenValue()));
-
-              if (tenant != null && tenant.getTenantId() > 0)
-                entity.setTenantId(tenant.getTenantId());
-              entity.setAccessTokenValue(atoken);
-              entity.setRefreshTokenValue(rtoken);
-
-              jpaAuthorizationRepository.save(entity);
-              log.info("Authorization saved successfully");
-              return null;
-            } catch (Exception ex) {
-              status.setRollbackOnly();
-              throw ex;
-            }
-          });
+      var encryptedTokens =
+          encryptionService.encryptAll(
+              Arrays.asList(
+                  getTokenValue(authorization.getToken(OAuth2AccessToken.class)),
+                  getTokenValue(authorization.getToken(OAuth2RefreshToken.class))));
+
+      var entity = authorizationMapper.toEntity(authorization);
+      entity.setStateHash(hashingService.hash(entity.getState()));
+      entity.setAuthorizationCodeHash(hashingService.hash(entity.getAuthorizationCodeValue()));
+      entity.setAccessTokenHash(hashingService.hash(entity.getAccessTokenValue()));
+      entity.setRefreshTokenHash(hashingService.hash(entity.getRefreshTokenValue()));
+
+      if (tenant != null && tenant.getTenantId() > 0) entity.setTenantId(tenant.getTenantId());
+      entity.setAccessTokenValue(encryptedTokens.get(0));
+      entity.setRefreshTokenValue(encryptedTokens.get(1));
+      entity.setModifiedAt(ZonedDateTime.now());
+
+      SavedAuthorization saved;
+      if (writeCoalescer.isEnabled()) saved = persistCoalesced(entity);
+      else if (entity.getTenantId() != null) saved = upsert(entity);
+      else saved = persist(entity);
+      log.info("Authorization saved successfully");
+
+      authorizationCacheService.put(saved.entity());
+      var supersededAccessToken = saved.supersededAccessToken();
+      if (supersededAccessToken != null)
+        tokenRevocationService.revoke(
+            supersededAccessToken.hash(), supersededAccessToken.expiresAt());
+
+      revokeIfInvalidated(authorization);
     } catch (Exception e) {
       log.error("Could not save authorization");
       throw new AuthorizationPersistenceException(e);
@@ -108,7 +133,99 @@ public class AscTransactionalAuthorizationService {
   }
 
   /**
-   * Removes an OAuth2 authorization.
+   * Writes an authorization entity with a native upsert by primary key. The entity already carries
+   * its tenant ID, so merging with the stored state would not change it. The superseded access
+   * token is taken from the authorization cache; only the stateless JWT introspection relies on its
+   * revocation, so on a cache miss the stored state is read by primary key in that mode alone.
+   *
+   * @param entity the entity to write, with encrypted token values
+   * @return the saved entity and the access token it superseded
+   */
+  private SavedAuthorization upsert(AuthorizationEntity entity) {
+    var previous = authorizationCacheService.peek(entity);
+    if (previous == null && statelessIntrospection) {
+      var id =
+          new AuthorizationEntity.AuthorizationId(
+              entity.getRegisteredClientId(),
+              entity.getPrincipalId(),
+              entity.getAuthorizationGrantType());
+      previous = jdbcAuthorizationRepository.findAllByIds(List.of(id)).get(id);
+    }
+
+    jdbcAuthorizationRepository.upsert(entity);
+    return new SavedAuthorization(entity, getSupersededAccessToken(previous, entity));
+  }
+
+  /**
+   * Persists an authorization entity in its own transaction, merging it into the stored state. Used
+   * when the request carries no tenant, which must then be preserved from the stored state.
+   *
+   * @param entity the entity to persist, with encrypted token values
+   * @return the saved entity and the access token it superseded
+   */
+  private SavedAuthorization persist(AuthorizationEntity entity) {
+    var template = new TransactionTemplate(transactionManager);
+    template.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    template.setTimeout(2);
+    return template.execute(
+        status -> {
+          try {
+            var previous =
+                jpaAuthorizationRepository
+                    .findByRegisteredClientIdAndPrincipalIdAndAuthorizationGrantType(
+                        entity.getRegisteredClientId(),
+                        entity.getPrincipalId(),
+                        entity.getAuthorizationGrantType())
+                    .orElse(null);
+            var supersededAccessToken = getSupersededAccessToken(previous, entity);
+
+            var savedEntity =
+                jpaAuthorizationRepository.save(
+                    authorizationMapper.merge(previous != null ? previous : entity, entity));
+            return new SavedAuthorization(savedEntity, supersededAccessToken);
+          } catch (Exception ex) {
+            status.setRollbackOnly();
+            throw ex;
+          }
+        });
+  }
+
+  /**
+   * Persists an authorization entity through the write coalescer and waits for its batch to commit,
+   * so the issuing request reads its own write.
+   *
+   * @param entity the entity to persist, with encrypted token values
+   * @return the saved entity and the access token it superseded
+   * @throws Exception if the entity was not written
+   */
+  private SavedAuthorization persistCoalesced(AuthorizationEntity entity) throws Exception {
+    var previous = writeCoalescer.write(entity);
+    return new SavedAuthorization(entity, getSupersededAccessToken(previous, entity));
+  }
+
+  /**
+   * Determines the access token replaced by a save.
+   *
+   * @param previous the previously stored state, or null if none
+   * @param entity the entity being saved
+   * @return the superseded access token, or null if the access token did not change
+   */
+  private IssuedToken getSupersededAccessToken(
+      AuthorizationEntity previous, AuthorizationEntity entity) {
+    if (previous == null
+        || previous.getAccessTokenHash() == null
+        || previous.getAccessTokenHash().equals(entity.getAccessTokenHash())) return null;
+
+    return new IssuedToken(
+        previous.getAccessTokenHash(),
+        previous.getAccessTokenExpiresAt() != null
+            ? previous.getAccessTokenExpiresAt().toInstant()
+            : null);
+  }
+
+  /**
+   * Removes an OAuth2 authorization. The cached entity is evicted both before the deletion and once
+   * it commits, so a concurrent read that still sees the row cannot leave it cached.
    *
    * @param authorization the authorization to remove
    * @throws AuthorizationCleanupException if an error occurs during removal
@@ -121,11 +238,20 @@ public class AscTransactionalAuthorizationService {
       MDC.put("id", authorization.getId());
       log.info("Removing authorization by id");
 
-      jpaAuthorizationRepository.deleteById(
+      var id =
           new AuthorizationEntity.AuthorizationId(
               authorization.getRegisteredClientId(),
               authorization.getPrincipalName(),
-              authorization.getAuthorizationGrantType().getValue()));
+              authorization.getAuthorizationGrantType().getValue());
+      authorizationCacheService.evict(id, "remove");
+      jpaAuthorizationRepository.deleteById(id);
+      afterCommit(() -> authorizationCacheService.evict(id, "remove"));
+
+      var accessToken = authorization.getAccessToken();
+      if (accessToken != null)
+        tokenRevocationService.revoke(
+            hashingService.hash(accessToken.getToken().getTokenValue()),
+            accessToken.getToken().getExpiresAt());
 
       log.info("Authorization removed successfully");
     } catch (Exception e) {
@@ -136,27 +262,47 @@ public class AscTransactionalAuthorizationService {
     }
   }
 
+  /**
+   * Runs the given action once the current transaction commits, or immediately when there is no
+   * active transaction.
+   *
+   * @param action the action to run
+   */
+  private void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
   /**
    * Finds an OAuth2 authorization by its ID.
    *
    * @param id the ID of the authorization
    * @return the found authorization, or null if not found
    */
-  @Transactional(readOnly = true, timeout = 2)
   public OAuth2Authorization findById(String id) {
     MDC.put("id", id);
     log.info("Retrieving authorization by id");
 
     try {
-      return jpaAuthorizationRepository
-          .findByAuthorizationId(id)
+      return authorizationCacheService
+          .findById(id, () -> load(() -> jpaAuthorizationRepository.findByAuthorizationId(id)))
+          .filter(e -> !isRevoked(e))
           .filter(
               e ->
                   registeredClientAccessibilityRepository.validateClientAccessibility(
                       e.getRegisteredClientId(), e.getTenantId()))
           .map(
               entity -> {
-                decryptAuthorizationTokens(entity);
+                decryptAuthorizationTokens(entity, null, null);
                 return authorizationMapper.fromEntity(
                     entity,
                     registeredClientRepository.findByClientId(entity.getRegisteredClientId()));
@@ -177,28 +323,30 @@ public class AscTransactionalAuthorizationService {
    * @param tokenType the type of the token
    * @return the found authorization, or null if not found
    */
-  @Transactional(readOnly = true, timeout = 2)
   public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
     MDC.put("token", token);
     log.info("Retrieving authorization by token");
 
     try {
-      var hashedToken =
-          tokenType == null
-                  || tokenType.equals(OAuth2TokenType.ACCESS_TOKEN)
-                  || tokenType.equals(OAuth2TokenType.REFRESH_TOKEN)
-              ? hashingService.hash(token)
-              : token;
+      var hashedToken = hashingService.hash(token);
+      if (tokenRevocationService.isRevoked(hashedToken)) {
+        log.debug("Token has been revoked");
+        return null;
+      }
 
-      return jpaAuthorizationRepository
-          .findByStateOrAuthorizationCodeValueOrAccessTokenValueOrRefreshTokenValue(hashedToken)
+      return authorizationCacheService
+          .findByTokenHash(
+              hashedToken,
+              e -> holdsToken(e, hashedToken, tokenType),
+              () -> load(() -> findEntityByToken(hashedToken, tokenType)))
+          .filter(e -> !isRevoked(e))
           .filter(
               e ->
                   registeredClientAccessibilityRepository.validateClientAccessibility(
                       e.getRegisteredClientId(), e.getTenantId()))
           .map(
               entity -> {
-                decryptAuthorizationTokens(entity);
+                decryptAuthorizationTokens(entity, token, hashedToken);
                 return authorizationMapper.fromEntity(
                     entity,
                     registeredClientRepository.findByClientId(entity.getRegisteredClientId()));
@@ -212,6 +360,121 @@ public class AscTransactionalAuthorizationService {
     }
   }
 
+  /**
+   * Looks up an authorization entity using the single indexed column that matches the token type.
+   * When the token type is unknown, the typed lookups are probed one by one instead of scanning all
+   * token columns at once.
+   *
+   * @param hashedToken the hash of the token value
+   * @param tokenType the type of the token, or null if unknown
+   * @return an {@link Optional} containing the found authorization entity, or empty if not found
+   */
+  private Optional<AuthorizationEntity> findEntityByToken(
+      String hashedToken, OAuth2TokenType tokenType) {
+    if (tokenType == null)
+      return jpaAuthorizationRepository
+          .findByAccessTokenHash(hashedToken)
+          .or(() -> jpaAuthorizationRepository.findByRefreshTokenHash(hashedToken))
+          .or(() -> jpaAuthorizationRepository.findByAuthorizationCodeHash(hashedToken))
+          .or(() -> jpaAuthorizationRepository.findByStateHash(hashedToken));
+
+    return switch (tokenType.getValue()) {
+      case OAuth2ParameterNames.STATE -> jpaAuthorizationRepository.findByStateHash(hashedToken);
+      case OAuth2ParameterNames.CODE ->
+          jpaAuthorizationRepository.findByAuthorizationCodeHash(hashedToken);
+      case OAuth2ParameterNames.ACCESS_TOKEN ->
+          jpaAuthorizationRepository.findByAccessTokenHash(hashedToken);
+      case OAuth2ParameterNames.REFRESH_TOKEN ->
+          jpaAuthorizationRepository.findByRefreshTokenHash(hashedToken);
+      default -> Optional.empty();
+    };
+  }
+
+  /**
+   * Runs a lookup in a read-only transaction. Lookups served from the authorization cache never
+   * reach this method and therefore do not hold a database connection.
+   *
+   * @param lookup the repository lookup
+   * @return the result of the lookup
+   */
+  private Optional<AuthorizationEntity> load(Supplier<Optional<AuthorizationEntity>> lookup) {
+    var template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(true);
+    template.setTimeout(2);
+    return template.execute(status -> lookup.get());
+  }
+
+  /**
+   * Checks whether the entity holds the hashed token in the column matching the token type, or in
+   * any token column when the type is unknown.
+   *
+   * @param entity the authorization entity
+   * @param hashedToken the hash of the token value
+   * @param tokenType the type of the token, or null if unknown
+   * @return true if the entity holds the token, false otherwise
+   */
+  private boolean holdsToken(
+      AuthorizationEntity entity, String hashedToken, OAuth2TokenType tokenType) {
+    if (tokenType == null)
+      return hashedToken.equals(entity.getAccessTokenHash())
+          || hashedToken.equals(entity.getRefreshTokenHash())
+          || hashedToken.equals(entity.getAuthorizationCodeHash())
+          || hashedToken.equals(entity.getStateHash());
+
+    return switch (tokenType.getValue()) {
+      case OAuth2ParameterNames.STATE -> hashedToken.equals(entity.getStateHash());
+      case OAuth2ParameterNames.CODE -> hashedToken.equals(entity.getAuthorizationCodeHash());
+      case OAuth2ParameterNames.ACCESS_TOKEN -> hashedToken.equals(entity.getAccessTokenHash());
+      case OAuth2ParameterNames.REFRESH_TOKEN -> hashedToken.equals(entity.getRefreshTokenHash());
+      default -> false;
+    };
+  }
+
+  /**
+   * Checks the revocation index for a revocation of the entity's client, or client and principal,
+   * recorded after its most recent token was issued. Entities without any timestamp are not
+   * checked.
+   *
+   * @param entity the authorization entity
+   * @return true if the authorization has been revoked, false otherwise
+   */
+  private boolean isRevoked(AuthorizationEntity entity) {
+    var issuedAt =
+        Stream.of(
+                entity.getAuthorizationCodeIssuedAt(),
+                entity.getAccessTokenIssuedAt(),
+                entity.getRefreshTokenIssuedAt(),
+                entity.getModifiedAt())
+            .filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .map(ZonedDateTime::toInstant)
+            .orElse(null);
+    if (issuedAt == null) return false;
+
+    var revoked =
+        tokenRevocationService.isRevoked(
+            entity.getRegisteredClientId(), entity.getPrincipalId(), issuedAt);
+    if (revoked) {
+      log.debug("Authorization has been revoked");
+      authorizationCacheService.evict(entity, "revoked");
+    }
+
+    return revoked;
+  }
+
+  /**
+   * Records the access token of the given authorization as revoked if it has been invalidated.
+   *
+   * @param authorization the saved authorization
+   */
+  private void revokeIfInvalidated(OAuth2Authorization authorization) {
+    var accessToken = authorization.getAccessToken();
+    if (accessToken != null && accessToken.isInvalidated())
+      tokenRevocationService.revoke(
+          hashingService.hash(accessToken.getToken().getTokenValue()),
+          accessToken.getToken().getExpiresAt());
+  }
+
   /**
    * Sets the client state cookie for the given authorization.
    *
@@ -234,7 +497,7 @@ public class AscTransactionalAuthorizationService {
   }
 
   /**
-   * Retrieves the tenant information from the current request.
+   * Retrieves the tenant information already resolved for the current request.
    *
    * @return the tenant response, or null if not found
    */
@@ -242,61 +505,67 @@ public class AscTransactionalAuthorizationService {
     var ctx = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
     if (ctx == null) return null;
 
-    return (AscTenantResponse) ctx.getRequest().getAttribute("tenant");
+    return identityContextService.getResolvedTenant(ctx.getRequest()).orElse(null);
   }
 
   /**
-   * Asynchronously encrypts a token.
+   * Returns the value of a token.
    *
-   * @param token the token to encrypt
-   * @return a CompletableFuture containing the encrypted token value
+   * @param token the token, or null
+   * @return the token value, or null if there is no token
    */
-  private CompletableFuture<String> encryptTokenAsync(OAuth2Authorization.Token<?> token) {
-    return CompletableFuture.supplyAsync(
-        () -> {
-          try {
-            return token != null
-                ? encryptionService.encrypt(token.getToken().getTokenValue())
-                : null;
-          } catch (Exception e) {
-            throw new IllegalStateException("Failed to encrypt token", e);
-          }
-        },
-        executor);
+  private String getTokenValue(OAuth2Authorization.Token<?> token) {
+    return token != null ? token.getToken().getTokenValue() : null;
   }
 
   /**
-   * Asynchronously decrypts a token.
+   * Decrypts the tokens of the given authorization entity. A token whose hash matches the token
+   * presented by the caller is not decrypted; the presented value is used instead.
    *
-   * @param tokenValue the token value to decrypt
-   * @return a CompletableFuture containing the decrypted token value
+   * <p>Lookups by ID, state or authorization code, as done by the consent and code-exchange paths,
+   * present neither token, so both are still decrypted. Those authorizations are saved back with
+   * their token values, which are re-encrypted and hashed on save, and invalidated access tokens
+   * are revoked by the hash of their value, so the values have to be plain.
+   *
+   * @param entity the authorization entity
+   * @param presentedToken the plain token value presented by the caller, or null if none
+   * @param presentedTokenHash the hash of the presented token value, or null if none
    */
-  private CompletableFuture<String> decryptTokenAsync(String tokenValue) {
-    return CompletableFuture.supplyAsync(
-        () -> {
-          try {
-            return tokenValue != null ? encryptionService.decrypt(tokenValue) : null;
-          } catch (Exception e) {
-            throw new IllegalStateException("Failed to decrypt token", e);
-          }
-        },
-        executor);
+  private void decryptAuthorizationTokens(
+      AuthorizationEntity entity, String presentedToken, String presentedTokenHash) {
+    var accessTokenPresented =
+        presentedTokenHash != null && presentedTokenHash.equals(entity.getAccessTokenHash());
+    var refreshTokenPresented =
+        presentedTokenHash != null && presentedTokenHash.equals(entity.getRefreshTokenHash());
+    var tokens =
+        encryptionService.decryptAll(
+            Arrays.asList(
+                accessTokenPresented ? null : entity.getAccessTokenValue(),
+                refreshTokenPresented ? null : entity.getRefreshTokenValue()));
+
+    countDecryption("access", entity.getAccessTokenValue(), accessTokenPresented);
+    countDecryption("refresh", entity.getRefreshTokenValue(), refreshTokenPresented);
+    entity.setAccessTokenValue(accessTokenPresented ? presentedToken : tokens.get(0));
+    entity.setRefreshTokenValue(refreshTokenPresented ? presentedToken : tokens.get(1));
   }
 
   /**
-   * Decrypts the tokens of the given authorization entity.
+   * Records whether a stored token value had to be decrypted or was avoided.
    *
-   * @param entity the authorization entity
+   * @param token the kind of token, access or refresh
+   * @param encryptedValue the stored token value, or null if there is no token
+   * @param presented whether the caller presented the plain token value
    */
-  private void decryptAuthorizationTokens(AuthorizationEntity entity) {
-    try {
-      var accessTokenFuture = decryptTokenAsync(entity.getAccessTokenValue());
-      var refreshTokenFuture = decryptTokenAsync(entity.getRefreshTokenValue());
+  private void countDecryption(String token, String encryptedValue, boolean presented) {
+    if (encryptedValue == null) return;
 
-      entity.setAccessTokenValue(accessTokenFuture.get(2, TimeUnit.SECONDS));
-      entity.setRefreshTokenValue(refreshTokenFuture.get(2, TimeUnit.SECONDS));
-    } catch (Exception e) {
-      throw new IllegalStateException("Failed to decrypt tokens", e);
-    }
+    meterRegistry
+        .counter(
+            "authorization.token.decrypts",
+            "token",
+            token,
+            "result",
+            presented ? "avoided" : "decrypted")
+        .increment();
   }
 }
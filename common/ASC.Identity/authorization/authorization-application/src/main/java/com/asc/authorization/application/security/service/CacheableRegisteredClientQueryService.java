@@ -27,6 +27,7 @@
 
 package com.asc.authorization.application.security.service;
 
+import com.asc.common.service.transfer.response.ClientAccessResponse;
 import com.asc.common.service.transfer.response.ClientResponse;
 
 /** Interface for a service that provides cached operations for querying registered clients. */
@@ -47,4 +48,12 @@ public interface CacheableRegisteredClientQueryService {
    * @return the ClientResponse containing the client's details.
    */
   ClientResponse findByClientId(String clientId);
+
+  /**
+   * Finds the access details of a client by its client ID with caching support.
+   *
+   * @param clientId the client ID of the client.
+   * @return the ClientAccessResponse containing the client's access details.
+   */
+  ClientAccessResponse findAccessByClientId(String clientId);
 }
@@ -0,0 +1,162 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+class AuthorizationMapperTest {
+  private RegisteredClient client;
+  private OAuth2Authorization authorization;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    client =
+        RegisteredClient.withId("client")
+            .clientId("client")
+            .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("https://example.com/callback")
+            .build();
+
+    var issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    var expiresAt = issuedAt.plus(1, ChronoUnit.HOURS);
+    var encoder =
+        new NimbusJwtEncoder(
+            new ImmutableJWKSet<>(new JWKSet(new RSAKeyGenerator(2048).keyID("kid").generate())));
+    var jwt =
+        encoder.encode(
+            JwtEncoderParameters.from(
+                JwsHeader.with(SignatureAlgorithm.RS256).build(),
+                JwtClaimsSet.builder()
+                    .issuer("https://example.com")
+                    .subject("user")
+                    .audience(List.of("client"))
+                    .issuedAt(issuedAt)
+                    .expiresAt(expiresAt)
+                    .claim("cid", "client")
+                    .claim("tid", 1)
+                    .build()));
+
+    authorization =
+        OAuth2Authorization.withRegisteredClient(client)
+            .id("id")
+            .principalName("user")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .token(
+                new OAuth2AccessToken(
+                    OAuth2AccessToken.TokenType.BEARER, jwt.getTokenValue(), issuedAt, expiresAt),
+                metadata ->
+                    metadata.put(
+                        OAuth2Authorization.Token.CLAIMS_METADATA_NAME,
+                        new LinkedHashMap<>(jwt.getClaims())))
+            .build();
+  }
+
+  @Test
+  void testRoundTripFromOmittedToEmbeddedClaims() throws Exception {
+    var omitted = mapper("json", "omitted");
+    var embedded = mapper("json", "embedded");
+
+    var written = omitted.toEntity(authorization);
+    assertFalse(written.getAccessTokenMetadata().contains("metadata.token.claims"));
+
+    var rewritten = embedded.toEntity(embedded.fromEntity(written, client));
+    var claims = embedded.fromEntity(rewritten, client).getAccessToken().getClaims();
+
+    assertNotNull(claims);
+    assertInstanceOf(LinkedHashMap.class, claims);
+    assertEquals("user", claims.get("sub"));
+    assertEquals("client", claims.get("cid"));
+    assertEquals(1, claims.get("tid"));
+    assertEquals(List.of("client"), claims.get("aud"));
+  }
+
+  @Test
+  void testRoundTripFromOmittedToCompactEmbeddedClaims() throws Exception {
+    var omitted = mapper("compact", "omitted");
+    var embedded = mapper("compact", "embedded");
+
+    var rewritten = embedded.toEntity(embedded.fromEntity(omitted.toEntity(authorization), client));
+    var claims = embedded.fromEntity(rewritten, client).getAccessToken().getClaims();
+
+    assertNotNull(claims);
+    assertEquals("user", claims.get("sub"));
+  }
+
+  /**
+   * Creates a mapper with the given metadata format and JWT claims storage.
+   *
+   * @param metadataFormat the metadata format, json or compact
+   * @param jwtClaimsStorage the JWT claims storage, embedded or omitted
+   * @return the initialized mapper
+   */
+  private AuthorizationMapper mapper(String metadataFormat, String jwtClaimsStorage)
+      throws Exception {
+    var mapper = new AuthorizationMapper();
+    set(mapper, "metadataFormat", metadataFormat);
+    set(mapper, "jwtClaimsStorage", jwtClaimsStorage);
+    mapper.init();
+    return mapper;
+  }
+
+  /**
+   * Sets a private field of the mapper.
+   *
+   * @param mapper the mapper
+   * @param name the field name
+   * @param value the value
+   */
+  private void set(AuthorizationMapper mapper, String name, String value) throws Exception {
+    var field = AuthorizationMapper.class.getDeclaredField(name);
+    field.setAccessible(true);
+    field.set(mapper, value);
+  }
+}
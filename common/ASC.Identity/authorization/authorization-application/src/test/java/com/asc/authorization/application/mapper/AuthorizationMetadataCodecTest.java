@@ -0,0 +1,223 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.server.authorization.jackson2.OAuth2AuthorizationServerJackson2Module;
+import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
+
+class AuthorizationMetadataCodecTest {
+  private static final String CLAIMS = "metadata.token.claims";
+  private static final String INVALIDATED = "metadata.token.invalidated";
+  private static final String TOKEN_FORMAT = OAuth2TokenFormat.class.getName();
+
+  private ObjectMapper objectMapper;
+  private AuthorizationMetadataCodec compact;
+  private AuthorizationMetadataCodec json;
+
+  @BeforeEach
+  void setUp() {
+    objectMapper = new ObjectMapper();
+    objectMapper.registerModules(
+        SecurityJackson2Modules.getModules(AuthorizationMetadataCodecTest.class.getClassLoader()));
+    objectMapper.registerModule(new OAuth2AuthorizationServerJackson2Module());
+    objectMapper.registerModule(new JavaTimeModule());
+    objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    compact = new AuthorizationMetadataCodec(this::writeJson, this::readJson, true);
+    json = new AuthorizationMetadataCodec(this::writeJson, this::readJson, false);
+  }
+
+  @Test
+  void testRoundTripAccessTokenMetadata() {
+    var claims = new LinkedHashMap<String, Object>();
+    claims.put("sub", "user");
+    claims.put("aud", List.of("https://example.com", "https://example.org"));
+    claims.put("scope", new LinkedHashSet<>(List.of("files:read", "files:write")));
+    claims.put("iat", Instant.ofEpochSecond(1_700_000_000L, 123_456_789));
+    claims.put("exp", Instant.ofEpochSecond(-1L, 1));
+    claims.put("tid", -42);
+    claims.put("min", Integer.MIN_VALUE);
+    claims.put("offset", -5_000_000_000L);
+    claims.put("small", -1L);
+    claims.put("max", Long.MAX_VALUE);
+    claims.put("nonce", null);
+    var metadata = new LinkedHashMap<String, Object>();
+    metadata.put(CLAIMS, claims);
+    metadata.put(INVALIDATED, false);
+    metadata.put("custom.flag", true);
+    metadata.put(TOKEN_FORMAT, OAuth2TokenFormat.SELF_CONTAINED);
+
+    var encoded = compact.encode(metadata);
+    var decoded = compact.decode(encoded);
+
+    assertTrue(encoded.startsWith(AuthorizationMetadataCodec.COMPACT_V1_PREFIX));
+    assertFalse(encoded.contains("custom.flag"));
+    assertEquals(metadata, decoded);
+
+    var decodedClaims = assertInstanceOf(Map.class, decoded.get(CLAIMS));
+    assertInstanceOf(Integer.class, decodedClaims.get("tid"));
+    assertInstanceOf(Integer.class, decodedClaims.get("min"));
+    assertInstanceOf(Long.class, decodedClaims.get("offset"));
+    assertInstanceOf(Long.class, decodedClaims.get("small"));
+    assertInstanceOf(Long.class, decodedClaims.get("max"));
+    assertInstanceOf(List.class, decodedClaims.get("aud"));
+    assertInstanceOf(Set.class, decodedClaims.get("scope"));
+    assertEquals(123_456_789, ((Instant) decodedClaims.get("iat")).getNano());
+    assertEquals(Boolean.TRUE, decoded.get("custom.flag"));
+    assertEquals(OAuth2TokenFormat.SELF_CONTAINED, decoded.get(TOKEN_FORMAT));
+  }
+
+  @Test
+  void testRoundTripAttributesWithJsonResidual() {
+    var principal = UsernamePasswordAuthenticationToken.authenticated("user", null, List.of());
+    var request =
+        OAuth2AuthorizationRequest.authorizationCode()
+            .authorizationUri("https://example.com/oauth2/authorize")
+            .clientId("client")
+            .redirectUri("https://example.com/callback")
+            .scopes(Set.of("openid"))
+            .state("state")
+            .build();
+    var attributes = new LinkedHashMap<String, Object>();
+    attributes.put(Principal.class.getName(), principal);
+    attributes.put(OAuth2AuthorizationRequest.class.getName(), request);
+    attributes.put("state", "state");
+
+    var decoded = compact.decode(compact.encode(attributes));
+
+    var decodedPrincipal =
+        assertInstanceOf(
+            UsernamePasswordAuthenticationToken.class, decoded.get(Principal.class.getName()));
+    var decodedRequest =
+        assertInstanceOf(
+            OAuth2AuthorizationRequest.class,
+            decoded.get(OAuth2AuthorizationRequest.class.getName()));
+    assertEquals("user", decodedPrincipal.getName());
+    assertEquals(request.getAuthorizationUri(), decodedRequest.getAuthorizationUri());
+    assertEquals(request.getRedirectUri(), decodedRequest.getRedirectUri());
+    assertEquals(request.getScopes(), decodedRequest.getScopes());
+    assertEquals("state", decoded.get("state"));
+  }
+
+  @Test
+  void testEncodeWithoutEncodableEntriesWritesJson() {
+    var metadata = new LinkedHashMap<String, Object>();
+    metadata.put(TOKEN_FORMAT, OAuth2TokenFormat.REFERENCE);
+
+    var encoded = compact.encode(metadata);
+
+    assertFalse(encoded.startsWith(AuthorizationMetadataCodec.COMPACT_V1_PREFIX));
+    assertEquals(metadata, compact.decode(encoded));
+  }
+
+  @Test
+  void testDecodeLegacyJson() {
+    var legacy =
+        """
+        {"@class":"java.util.Collections$UnmodifiableMap",\
+        "metadata.token.invalidated":false,\
+        "metadata.token.claims":{"@class":"java.util.Collections$UnmodifiableMap",\
+        "sub":"user","tid":1,\
+        "iat":["java.time.Instant","2024-01-01T00:00:00.123456789Z"],\
+        "aud":["java.util.Collections$SingletonList",["https://example.com"]]}}\
+        """;
+
+    var decoded = compact.decode(legacy);
+
+    assertEquals(Boolean.FALSE, decoded.get(INVALIDATED));
+    var claims = assertInstanceOf(Map.class, decoded.get(CLAIMS));
+    assertEquals("user", claims.get("sub"));
+    assertEquals(1, claims.get("tid"));
+    assertEquals(Instant.parse("2024-01-01T00:00:00.123456789Z"), claims.get("iat"));
+    assertEquals(List.of("https://example.com"), claims.get("aud"));
+  }
+
+  @Test
+  void testDecodeJsonWrittenBeforeSwitchingToCompact() {
+    var metadata = new LinkedHashMap<String, Object>();
+    metadata.put(INVALIDATED, true);
+    var claims = new LinkedHashMap<String, Object>();
+    claims.put("sub", "user");
+    claims.put("iat", Instant.ofEpochSecond(1, 5));
+    metadata.put(CLAIMS, claims);
+
+    var encoded = json.encode(metadata);
+
+    assertFalse(encoded.startsWith(AuthorizationMetadataCodec.COMPACT_V1_PREFIX));
+    assertEquals(metadata, compact.decode(encoded));
+  }
+
+  /**
+   * Writes a map as polymorphic JSON, the same way the authorization mapper does.
+   *
+   * @param metadata the map
+   * @return the JSON string
+   */
+  private String writeJson(Map<String, Object> metadata) {
+    try {
+      return objectMapper.writeValueAsString(metadata);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reads a map from polymorphic JSON, the same way the authorization mapper does.
+   *
+   * @param data the JSON string
+   * @return the map
+   */
+  private Map<String, Object> readJson(String data) {
+    try {
+      return objectMapper.readValue(data, new TypeReference<Map<String, Object>>() {});
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+import com.asc.authorization.application.security.jwks.KeyPairRepositoryJWKSource;
+import com.asc.authorization.application.security.service.AscTokenRevocationService;
+import com.asc.authorization.application.security.service.RegisteredClientAccessibilityService;
+import com.asc.common.utilities.crypto.HashingService;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2TokenIntrospectionAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+class AscTokenIntrospectionAuthenticationProviderTest {
+  private OAuth2AuthorizationService authorizationService;
+  private RegisteredClientAccessibilityService registeredClientAccessibilityService;
+  private NimbusJwtEncoder jwtEncoder;
+  private AscTokenIntrospectionAuthenticationProvider provider;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    var jwkSource =
+        new ImmutableJWKSet<>(new JWKSet(new RSAKeyGenerator(2048).keyID("kid").generate()));
+    jwtEncoder = new NimbusJwtEncoder(jwkSource);
+    authorizationService = mock(OAuth2AuthorizationService.class);
+    registeredClientAccessibilityService = mock(RegisteredClientAccessibilityService.class);
+
+    provider =
+        new AscTokenIntrospectionAuthenticationProvider(
+            mock(RegisteredClientRepository.class),
+            authorizationService,
+            registeredClientAccessibilityService,
+            mock(AscTokenRevocationService.class),
+            mock(HashingService.class),
+            jwkSource);
+    var stateless =
+        AscTokenIntrospectionAuthenticationProvider.class.getDeclaredField(
+            "statelessJwtIntrospection");
+    stateless.setAccessible(true);
+    stateless.setBoolean(provider, true);
+    provider.init();
+
+    when(registeredClientAccessibilityService.validateClientAccessibility("client", 1))
+        .thenReturn(true);
+  }
+
+  @Test
+  void testIntrospectAccessToken() {
+    var token = encode(true);
+
+    var result =
+        (OAuth2TokenIntrospectionAuthenticationToken) provider.authenticate(request(token));
+
+    assertTrue(result.isAuthenticated());
+    assertTrue(result.getTokenClaims().isActive());
+    assertEquals("client", result.getTokenClaims().getClientId());
+    verifyNoInteractions(authorizationService);
+  }
+
+  @Test
+  void testIntrospectIdToken() {
+    var token = encode(false);
+
+    var result =
+        (OAuth2TokenIntrospectionAuthenticationToken) provider.authenticate(request(token));
+
+    assertFalse(result.isAuthenticated());
+    assertFalse(result.getTokenClaims().isActive());
+    verify(authorizationService).findByToken(token, null);
+    verifyNoInteractions(registeredClientAccessibilityService);
+  }
+
+  /**
+   * Encodes a token the way the authorization server does, with or without the access token marker.
+   *
+   * @param accessToken whether to mark the token as an access token
+   * @return the encoded token value
+   */
+  private String encode(boolean accessToken) {
+    var issuedAt = Instant.now();
+    var claims =
+        JwtClaimsSet.builder()
+            .issuer("https://example.com")
+            .subject("user")
+            .audience(List.of("client"))
+            .issuedAt(issuedAt)
+            .expiresAt(issuedAt.plus(5, ChronoUnit.MINUTES))
+            .claim("cid", "client")
+            .claim("tid", 1);
+    if (accessToken)
+      claims.claim(
+          KeyPairRepositoryJWKSource.TOKEN_USE_CLAIM, KeyPairRepositoryJWKSource.ACCESS_TOKEN_USE);
+    return jwtEncoder
+        .encode(
+            JwtEncoderParameters.from(
+                JwsHeader.with(SignatureAlgorithm.RS256).build(), claims.build()))
+        .getTokenValue();
+  }
+
+  /**
+   * Builds an introspection request for the given token.
+   *
+   * @param token the token value
+   * @return the introspection request
+   */
+  private OAuth2TokenIntrospectionAuthenticationToken request(String token) {
+    return new OAuth2TokenIntrospectionAuthenticationToken(
+        token, mock(Authentication.class), null, null);
+  }
+}
@@ -0,0 +1,151 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.application.security.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.asc.authorization.application.mapper.AuthorizationMapper;
+import com.asc.authorization.data.authorization.entity.AuthorizationEntity;
+import com.asc.authorization.data.authorization.repository.JdbcAuthorizationRepository;
+import com.asc.authorization.data.authorization.repository.JpaAuthorizationRepository;
+import com.asc.common.application.transfer.response.AscTenantResponse;
+import com.asc.common.utilities.crypto.EncryptionService;
+import com.asc.common.utilities.crypto.HashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class AscTransactionalAuthorizationServiceTest {
+  private AuthorizationMapper authorizationMapper;
+  private JpaAuthorizationRepository jpaAuthorizationRepository;
+  private JdbcAuthorizationRepository jdbcAuthorizationRepository;
+  private AscAuthorizationCacheService authorizationCacheService;
+  private AscAuthorizationWriteCoalescer writeCoalescer;
+  private AscIdentityContextService identityContextService;
+  private AscTransactionalAuthorizationService service;
+  private OAuth2Authorization authorization;
+  private AuthorizationEntity entity;
+
+  @BeforeEach
+  void setUp() {
+    var transactionManager = mock(PlatformTransactionManager.class);
+    var encryptionService = mock(EncryptionService.class);
+    authorizationMapper = mock(AuthorizationMapper.class);
+    jpaAuthorizationRepository = mock(JpaAuthorizationRepository.class);
+    jdbcAuthorizationRepository = mock(JdbcAuthorizationRepository.class);
+    authorizationCacheService = mock(AscAuthorizationCacheService.class);
+    writeCoalescer = mock(AscAuthorizationWriteCoalescer.class);
+    identityContextService = mock(AscIdentityContextService.class);
+    authorization = mock(OAuth2Authorization.class);
+    entity =
+        AuthorizationEntity.builder()
+            .id("id")
+            .registeredClientId("client")
+            .principalId("user")
+            .authorizationGrantType("authorization_code")
+            .build();
+
+    service =
+        new AscTransactionalAuthorizationService(
+            transactionManager,
+            authorizationMapper,
+            encryptionService,
+            mock(HashingService.class),
+            jpaAuthorizationRepository,
+            jdbcAuthorizationRepository,
+            mock(RegisteredClientAccessibilityService.class),
+            mock(RegisteredClientRepository.class),
+            mock(AscTokenRevocationService.class),
+            authorizationCacheService,
+            writeCoalescer,
+            identityContextService,
+            new SimpleMeterRegistry());
+
+    when(authorization.getId()).thenReturn("id");
+    when(authorizationMapper.toEntity(authorization)).thenReturn(entity);
+    when(encryptionService.encryptAll(any())).thenReturn(Arrays.asList(null, null));
+    when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void testSaveWithTenantUpserts() {
+    var request = mock(HttpServletRequest.class);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    when(identityContextService.getResolvedTenant(request))
+        .thenReturn(Optional.of(AscTenantResponse.builder().tenantId(1).build()));
+
+    service.save(authorization);
+
+    verify(jdbcAuthorizationRepository).upsert(entity);
+    verifyNoInteractions(jpaAuthorizationRepository);
+    verify(authorizationCacheService).put(entity);
+  }
+
+  @Test
+  void testSaveWithoutTenantMerges() {
+    when(jpaAuthorizationRepository.findByRegisteredClientIdAndPrincipalIdAndAuthorizationGrantType(
+            "client", "user", "authorization_code"))
+        .thenReturn(Optional.empty());
+    when(authorizationMapper.merge(entity, entity)).thenReturn(entity);
+    when(jpaAuthorizationRepository.save(entity)).thenReturn(entity);
+
+    service.save(authorization);
+
+    verify(authorizationMapper).merge(entity, entity);
+    verify(jpaAuthorizationRepository).save(entity);
+    verify(jdbcAuthorizationRepository, never()).upsert(any());
+    verify(authorizationCacheService).put(entity);
+  }
+
+  @Test
+  void testSaveWithCoalescingWritesThroughCoalescer() throws Exception {
+    when(writeCoalescer.isEnabled()).thenReturn(true);
+
+    service.save(authorization);
+
+    verify(writeCoalescer).write(entity);
+    verifyNoInteractions(jpaAuthorizationRepository);
+    verify(jdbcAuthorizationRepository, never()).upsert(any());
+  }
+}
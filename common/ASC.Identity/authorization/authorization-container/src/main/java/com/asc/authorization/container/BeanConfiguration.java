@@ -30,7 +30,9 @@ package com.asc.authorization.container;
 import com.asc.common.utilities.crypto.AesEncryptionService;
 import com.asc.common.utilities.crypto.EncryptionService;
 import com.asc.common.utilities.crypto.HashingService;
+import com.asc.common.utilities.crypto.HmacSecretHashingService;
 import com.asc.common.utilities.crypto.SHA256HashingService;
+import com.asc.common.utilities.crypto.SecretHashingService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
@@ -51,16 +53,21 @@ public class BeanConfiguration {
    * present in the context.
    *
    * <p>This method uses the provided application secret to initialize the {@link
-   * AesEncryptionService}.
+   * AesEncryptionService}. Both ciphertext formats are always readable; the format only controls
+   * what is written. It defaults to {@code v1} and should only be switched to {@code v2} once every
+   * node of the fleet is able to read {@code v2}.
    *
    * @param secret the secret key used for encryption and decryption, injected from the application
    *     properties
+   * @param format the ciphertext format to write, injected from the application properties
    * @return an instance of {@link AesEncryptionService} initialized with the provided secret
    */
   @Bean
   @ConditionalOnMissingBean
-  public EncryptionService encryptionService(@Value("${application.secret}") String secret) {
-    return new AesEncryptionService(secret);
+  public EncryptionService encryptionService(
+      @Value("${application.secret}") String secret,
+      @Value("${application.cipher-format:v1}") String format) {
+    return new AesEncryptionService(secret, AesEncryptionService.Format.of(format));
   }
 
   @Bean
@@ -68,4 +75,17 @@ public class BeanConfiguration {
   public HashingService hashingService() {
     return new SHA256HashingService();
   }
+
+  /**
+   * Creates a default {@link SecretHashingService} bean keyed with the application secret, so
+   * client secrets hashed by the registration service can be verified here.
+   *
+   * @param secret the key used to hash client secrets, injected from the application properties
+   * @return an instance of {@link HmacSecretHashingService} initialized with the provided secret
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  public SecretHashingService secretHashingService(@Value("${application.secret}") String secret) {
+    return new HmacSecretHashingService(secret);
+  }
 }
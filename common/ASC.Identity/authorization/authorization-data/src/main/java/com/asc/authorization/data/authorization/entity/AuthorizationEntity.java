@@ -44,7 +44,9 @@ import org.hibernate.annotations.ColumnDefault;
 @IdClass(AuthorizationEntity.AuthorizationId.class)
 @EqualsAndHashCode
 @ToString
-public class AuthorizationEntity {
+public class AuthorizationEntity implements Serializable {
+  private static final long serialVersionUID = 1L;
+
   /** The authorization ID. */
   @Column(name = "id", nullable = false)
   private String id;
@@ -67,6 +69,10 @@ public class AuthorizationEntity {
   @Column(name = "state")
   private String state;
 
+  /** The state hash. */
+  @Column(name = "state_hash", length = 64)
+  private String stateHash;
+
   /** The attributes. */
   @Column(name = "attributes")
   private String attributes;
@@ -83,6 +89,10 @@ public class AuthorizationEntity {
   @Column(name = "authorization_code_value")
   private String authorizationCodeValue;
 
+  /** The authorization code hash. */
+  @Column(name = "authorization_code_hash", length = 64)
+  private String authorizationCodeHash;
+
   /** The authorization code metadata. */
   @Column(name = "authorization_code_metadata")
   private String authorizationCodeMetadata;
@@ -104,7 +114,7 @@ public class AuthorizationEntity {
   private String accessTokenValue;
 
   /** The access token hash. */
-  @Column(name = "access_token_hash")
+  @Column(name = "access_token_hash", length = 64)
   private String accessTokenHash;
 
   /** The access token scopes. */
@@ -128,7 +138,7 @@ public class AuthorizationEntity {
   private String refreshTokenValue;
 
   /** The refresh token hash. */
-  @Column(name = "refresh_token_hash")
+  @Column(name = "refresh_token_hash", length = 64)
   private String refreshTokenHash;
 
   /** The refresh token metadata. */
@@ -0,0 +1,297 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.data.authorization.repository;
+
+import com.asc.authorization.data.authorization.entity.AuthorizationEntity;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for writing {@link AuthorizationEntity} objects with native statements.
+ *
+ * <p>Rows are upserted on the composite primary key alone: an update by primary key, followed by an
+ * insert when no row matched. {@code INSERT ... ON DUPLICATE KEY UPDATE} is not used, since it also
+ * fires on the unique authorization ID and could then overwrite a different row. A write needs
+ * neither the persistence context nor a preceding lookup. The upsert replaces every column, so
+ * entities must carry their tenant ID.
+ */
+@Repository
+public class JdbcAuthorizationRepository {
+  private static final String UPDATE_SQL =
+      """
+      UPDATE identity_authorizations SET
+        id = ?, tenant_id = ?, state = ?, state_hash = ?, attributes = ?, authorized_scopes = ?,
+        authorization_code_value = ?, authorization_code_hash = ?,
+        authorization_code_metadata = ?, authorization_code_issued_at = ?,
+        authorization_code_expires_at = ?, access_token_type = ?, access_token_value = ?,
+        access_token_hash = ?, access_token_scopes = ?, access_token_metadata = ?,
+        access_token_issued_at = ?, access_token_expires_at = ?, refresh_token_value = ?,
+        refresh_token_hash = ?, refresh_token_metadata = ?, refresh_token_issued_at = ?,
+        refresh_token_expires_at = ?, is_invalidated = ?, modified_at = ?
+      WHERE registered_client_id = ? AND principal_id = ? AND authorization_grant_type = ?
+      """;
+
+  private static final String INSERT_SQL =
+      """
+      INSERT INTO identity_authorizations (
+        id, tenant_id, state, state_hash, attributes, authorized_scopes,
+        authorization_code_value, authorization_code_hash, authorization_code_metadata,
+        authorization_code_issued_at, authorization_code_expires_at, access_token_type,
+        access_token_value, access_token_hash, access_token_scopes, access_token_metadata,
+        access_token_issued_at, access_token_expires_at, refresh_token_value, refresh_token_hash,
+        refresh_token_metadata, refresh_token_issued_at, refresh_token_expires_at, is_invalidated,
+        modified_at, registered_client_id, principal_id, authorization_grant_type)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private static final String SELECT_SQL =
+      """
+      SELECT registered_client_id, principal_id, authorization_grant_type, tenant_id,
+        access_token_hash, access_token_expires_at
+      FROM identity_authorizations
+      WHERE (registered_client_id, principal_id, authorization_grant_type) IN (%s)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ZoneId zoneId;
+
+  /**
+   * Constructs a new JdbcAuthorizationRepository.
+   *
+   * @param jdbcTemplate the JDBC template
+   * @param timeZone the time zone timestamps are stored in, shared with Hibernate
+   */
+  public JdbcAuthorizationRepository(
+      JdbcTemplate jdbcTemplate,
+      @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:UTC}") String timeZone) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.zoneId = ZoneId.of(timeZone);
+  }
+
+  /**
+   * Finds the stored state of the given authorizations needed to merge and supersede them. The
+   * returned entities only carry the primary key, the tenant ID and the access token hash and
+   * expiry.
+   *
+   * @param ids the composite primary keys to look up
+   * @return the found entities keyed by their primary key
+   */
+  public Map<AuthorizationEntity.AuthorizationId, AuthorizationEntity> findAllByIds(
+      Collection<AuthorizationEntity.AuthorizationId> ids) {
+    if (ids.isEmpty()) return Collections.emptyMap();
+
+    var args = new ArrayList<>(ids.size() * 3);
+    for (var id : ids) {
+      args.add(id.getRegisteredClientId());
+      args.add(id.getPrincipalId());
+      args.add(id.getAuthorizationGrantType());
+    }
+
+    var placeholders = String.join(", ", Collections.nCopies(ids.size(), "(?, ?, ?)"));
+    var result = new HashMap<AuthorizationEntity.AuthorizationId, AuthorizationEntity>();
+    jdbcTemplate.query(
+        SELECT_SQL.formatted(placeholders),
+        rs -> {
+          var entity =
+              AuthorizationEntity.builder()
+                  .registeredClientId(rs.getString("registered_client_id"))
+                  .principalId(rs.getString("principal_id"))
+                  .authorizationGrantType(rs.getString("authorization_grant_type"))
+                  .tenantId(rs.getInt("tenant_id"))
+                  .accessTokenHash(rs.getString("access_token_hash"))
+                  .accessTokenExpiresAt(getTimestamp(rs, "access_token_expires_at"))
+                  .build();
+          result.put(
+              new AuthorizationEntity.AuthorizationId(
+                  entity.getRegisteredClientId(),
+                  entity.getPrincipalId(),
+                  entity.getAuthorizationGrantType()),
+              entity);
+        },
+        args.toArray());
+
+    return result;
+  }
+
+  /**
+   * Inserts or updates an authorization by its primary key. If a concurrent writer inserts the same
+   * key first, the entity is written by updating that row instead.
+   *
+   * @param entity the entity to write
+   */
+  public void upsert(AuthorizationEntity entity) {
+    if (update(entity) > 0) return;
+
+    try {
+      jdbcTemplate.update(INSERT_SQL, ps -> setValues(ps, entity));
+    } catch (DuplicateKeyException e) {
+      if (update(entity) == 0) throw e;
+    }
+  }
+
+  /**
+   * Inserts or updates the given authorizations with one JDBC batch of updates, followed by one
+   * batch inserting the rows no update matched. Entities sharing a primary key are written in list
+   * order, so the last one wins. If a concurrent writer inserts one of the keys first, the entities
+   * left to insert are written one by one.
+   *
+   * @param entities the entities to write
+   */
+  public void upsertAll(List<AuthorizationEntity> entities) {
+    var counts = jdbcTemplate.batchUpdate(UPDATE_SQL, batchSetter(entities));
+
+    var missing = new LinkedHashMap<AuthorizationEntity.AuthorizationId, AuthorizationEntity>();
+    for (var i = 0; i < entities.size(); i++) {
+      if (counts[i] != 0) continue;
+
+      var entity = entities.get(i);
+      var id =
+          new AuthorizationEntity.AuthorizationId(
+              entity.getRegisteredClientId(),
+              entity.getPrincipalId(),
+              entity.getAuthorizationGrantType());
+      missing.put(id, entity);
+    }
+
+    if (missing.isEmpty()) return;
+
+    var inserts = new ArrayList<>(missing.values());
+    try {
+      jdbcTemplate.batchUpdate(INSERT_SQL, batchSetter(inserts));
+    } catch (DuplicateKeyException e) {
+      inserts.forEach(this::upsert);
+    }
+  }
+
+  /**
+   * Updates an authorization by its primary key.
+   *
+   * @param entity the entity to write
+   * @return the number of matched rows
+   */
+  private int update(AuthorizationEntity entity) {
+    return jdbcTemplate.update(UPDATE_SQL, ps -> setValues(ps, entity));
+  }
+
+  /**
+   * Creates a batch setter binding the given entities in list order.
+   *
+   * @param entities the entities to bind
+   * @return the batch setter
+   */
+  private BatchPreparedStatementSetter batchSetter(List<AuthorizationEntity> entities) {
+    return new BatchPreparedStatementSetter() {
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        JdbcAuthorizationRepository.this.setValues(ps, entities.get(i));
+      }
+
+      public int getBatchSize() {
+        return entities.size();
+      }
+    };
+  }
+
+  /**
+   * Binds the columns of an entity to the update or insert statement, which both take the other
+   * columns first and the composite primary key last.
+   *
+   * @param ps the update or insert statement
+   * @param entity the entity to bind
+   * @throws SQLException if a parameter cannot be set
+   */
+  private void setValues(PreparedStatement ps, AuthorizationEntity entity) throws SQLException {
+    var index = 0;
+    ps.setString(++index, entity.getId());
+    ps.setObject(++index, entity.getTenantId());
+    ps.setString(++index, entity.getState());
+    ps.setString(++index, entity.getStateHash());
+    ps.setString(++index, entity.getAttributes());
+    ps.setString(++index, entity.getAuthorizedScopes());
+    ps.setString(++index, entity.getAuthorizationCodeValue());
+    ps.setString(++index, entity.getAuthorizationCodeHash());
+    ps.setString(++index, entity.getAuthorizationCodeMetadata());
+    ps.setObject(++index, toLocal(entity.getAuthorizationCodeIssuedAt()));
+    ps.setObject(++index, toLocal(entity.getAuthorizationCodeExpiresAt()));
+    ps.setString(++index, entity.getAccessTokenType());
+    ps.setString(++index, entity.getAccessTokenValue());
+    ps.setString(++index, entity.getAccessTokenHash());
+    ps.setString(++index, entity.getAccessTokenScopes());
+    ps.setString(++index, entity.getAccessTokenMetadata());
+    ps.setObject(++index, toLocal(entity.getAccessTokenIssuedAt()));
+    ps.setObject(++index, toLocal(entity.getAccessTokenExpiresAt()));
+    ps.setString(++index, entity.getRefreshTokenValue());
+    ps.setString(++index, entity.getRefreshTokenHash());
+    ps.setString(++index, entity.getRefreshTokenMetadata());
+    ps.setObject(++index, toLocal(entity.getRefreshTokenIssuedAt()));
+    ps.setObject(++index, toLocal(entity.getRefreshTokenExpiresAt()));
+    ps.setBoolean(++index, entity.isInvalidated());
+    ps.setObject(++index, toLocal(entity.getModifiedAt()));
+    ps.setString(++index, entity.getRegisteredClientId());
+    ps.setString(++index, entity.getPrincipalId());
+    ps.setString(++index, entity.getAuthorizationGrantType());
+  }
+
+  /**
+   * Converts a timestamp to the local date time stored in the database.
+   *
+   * @param timestamp the timestamp, or null
+   * @return the local date time in the storage time zone, or null
+   */
+  private LocalDateTime toLocal(ZonedDateTime timestamp) {
+    return timestamp != null ? timestamp.withZoneSameInstant(zoneId).toLocalDateTime() : null;
+  }
+
+  /**
+   * Reads a timestamp stored in the storage time zone.
+   *
+   * @param rs the result set
+   * @param column the column name
+   * @return the timestamp, or null
+   * @throws SQLException if the column cannot be read
+   */
+  private ZonedDateTime getTimestamp(ResultSet rs, String column) throws SQLException {
+    var timestamp = rs.getObject(column, LocalDateTime.class);
+    return timestamp != null ? timestamp.atZone(zoneId) : null;
+  }
+}
@@ -28,8 +28,10 @@
 package com.asc.authorization.data.authorization.repository;
 
 import com.asc.authorization.data.authorization.entity.AuthorizationEntity;
+import java.time.ZonedDateTime;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -94,21 +96,73 @@ public interface JpaAuthorizationRepository
   Optional<AuthorizationEntity> findByRefreshTokenValue(String refreshToken);
 
   /**
-   * Finds an authorization entity by state, authorization code value, access token value, or
-   * refresh token value.
+   * Finds an authorization entity by its state hash.
    *
-   * @param token the token to search for (can be state, authorization code, access token, or
-   *     refresh token)
+   * @param stateHash the hash of the state
    * @return an {@link Optional} containing the found authorization entity, or empty if not found
    */
+  Optional<AuthorizationEntity> findByStateHash(String stateHash);
+
+  /**
+   * Finds an authorization entity by its authorization code hash.
+   *
+   * @param authorizationCodeHash the hash of the authorization code value
+   * @return an {@link Optional} containing the found authorization entity, or empty if not found
+   */
+  Optional<AuthorizationEntity> findByAuthorizationCodeHash(String authorizationCodeHash);
+
+  /**
+   * Finds an authorization entity by its access token hash.
+   *
+   * @param accessTokenHash the hash of the access token value
+   * @return an {@link Optional} containing the found authorization entity, or empty if not found
+   */
+  Optional<AuthorizationEntity> findByAccessTokenHash(String accessTokenHash);
+
+  /**
+   * Finds an authorization entity by its refresh token hash.
+   *
+   * @param refreshTokenHash the hash of the refresh token value
+   * @return an {@link Optional} containing the found authorization entity, or empty if not found
+   */
+  Optional<AuthorizationEntity> findByRefreshTokenHash(String refreshTokenHash);
+
+  /**
+   * Deletes a chunk of authorizations that expired before the given time, oldest first.
+   *
+   * @param before the expiry cutoff
+   * @param limit the maximum number of authorizations to delete
+   * @return the number of deleted authorizations
+   */
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM identity_authorizations WHERE expires_at < :before ORDER BY expires_at LIMIT :limit",
+      nativeQuery = true)
+  int deleteExpiredAuthorizations(@Param("before") ZonedDateTime before, @Param("limit") int limit);
+
+  /**
+   * Deletes a chunk of invalidated authorizations in primary key order.
+   *
+   * @param limit the maximum number of authorizations to delete
+   * @return the number of deleted authorizations
+   */
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM identity_authorizations WHERE is_invalidated = 1 ORDER BY principal_id, registered_client_id, authorization_grant_type LIMIT :limit",
+      nativeQuery = true)
+  int deleteInvalidatedAuthorizations(@Param("limit") int limit);
+
+  /**
+   * Counts the authorizations that expired before the given time or have been invalidated.
+   *
+   * @param before the expiry cutoff
+   * @return the number of authorizations waiting to be deleted
+   */
   @Query(
-      "SELECT a FROM AuthorizationEntity a WHERE a.state = :token"
-          + " OR a.authorizationCodeValue = :token"
-          + " OR a.accessTokenValue = :token"
-          + " OR a.refreshTokenValue = :token"
-          + " OR a.accessTokenHash = :token"
-          + " OR a.refreshTokenHash = :token")
-  Optional<AuthorizationEntity>
-      findByStateOrAuthorizationCodeValueOrAccessTokenValueOrRefreshTokenValue(
-          @Param("token") String token);
+      value =
+          "SELECT (SELECT COUNT(*) FROM identity_authorizations WHERE expires_at < :before) + (SELECT COUNT(*) FROM identity_authorizations WHERE is_invalidated = 1)",
+      nativeQuery = true)
+  long countReapableAuthorizations(@Param("before") ZonedDateTime before);
 }
@@ -0,0 +1,160 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.data.authorization.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.asc.authorization.data.authorization.entity.AuthorizationEntity;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Concurrency stress test for the native authorization upsert. It needs a MySQL schema migrated by
+ * the migration runner and only runs when {@code JDBC_STRESS_URL} points at it, for example {@code
+ * jdbc:mysql://localhost/docspace?user=dev&password=dev}.
+ */
+@EnabledIfEnvironmentVariable(named = "JDBC_STRESS_URL", matches = ".+")
+class JdbcAuthorizationRepositoryStressTest {
+  private static final int THREADS = 32;
+  private static final int WRITES_PER_THREAD = 200;
+  private static final int HOT_KEYS = 4;
+
+  private JdbcTemplate jdbcTemplate;
+  private JdbcAuthorizationRepository jdbcAuthorizationRepository;
+  private String principalPrefix;
+
+  @BeforeEach
+  void setUp() {
+    var url = System.getenv("JDBC_STRESS_URL");
+    var dataSource =
+        new DriverManagerDataSource(
+            url
+                + (url.contains("?") ? "&" : "?")
+                + "sessionVariables=foreign_key_checks=0&rewriteBatchedStatements=true");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcAuthorizationRepository = new JdbcAuthorizationRepository(jdbcTemplate, "UTC");
+    principalPrefix = "stress-" + UUID.randomUUID() + "-";
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update(
+        "DELETE FROM identity_authorizations WHERE principal_id LIKE ?", principalPrefix + "%");
+  }
+
+  @Test
+  void upsert_ConcurrentWritesToSameKeys_NoDeadlocks() throws InterruptedException {
+    var failures = new ConcurrentLinkedQueue<Throwable>();
+    var start = new CountDownLatch(1);
+    var executor = Executors.newFixedThreadPool(THREADS);
+    for (var t = 0; t < THREADS; t++) {
+      executor.execute(
+          () -> {
+            try {
+              start.await();
+              for (var i = 0; i < WRITES_PER_THREAD; i++)
+                jdbcAuthorizationRepository.upsert(entity(i % HOT_KEYS));
+            } catch (Throwable e) {
+              failures.add(e);
+            }
+          });
+    }
+
+    start.countDown();
+    executor.shutdown();
+
+    assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+    assertTrue(failures.isEmpty(), () -> "Concurrent upserts failed: " + failures);
+    assertEquals(HOT_KEYS, countRows());
+  }
+
+  @Test
+  void upsertAll_ConcurrentOverlappingBatches_NoDeadlocks() throws InterruptedException {
+    var failures = new ConcurrentLinkedQueue<Throwable>();
+    var start = new CountDownLatch(1);
+    var executor = Executors.newFixedThreadPool(THREADS);
+    for (var t = 0; t < THREADS; t++) {
+      executor.execute(
+          () -> {
+            try {
+              start.await();
+              for (var i = 0; i < WRITES_PER_THREAD / HOT_KEYS; i++) {
+                var batch = new ArrayList<AuthorizationEntity>(HOT_KEYS);
+                for (var key = 0; key < HOT_KEYS; key++) batch.add(entity(key));
+                jdbcAuthorizationRepository.upsertAll(batch);
+              }
+            } catch (Throwable e) {
+              failures.add(e);
+            }
+          });
+    }
+
+    start.countDown();
+    executor.shutdown();
+
+    assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+    assertTrue(failures.isEmpty(), () -> "Concurrent batch upserts failed: " + failures);
+    assertEquals(HOT_KEYS, countRows());
+  }
+
+  private AuthorizationEntity entity(int key) {
+    var now = ZonedDateTime.now();
+    return AuthorizationEntity.builder()
+        .id(UUID.randomUUID().toString())
+        .registeredClientId("00000000-0000-0000-0000-000000000000")
+        .principalId(principalPrefix + key)
+        .tenantId(1)
+        .authorizationGrantType("personal_access_token")
+        .accessTokenType("Bearer")
+        .accessTokenValue(UUID.randomUUID().toString())
+        .accessTokenHash(UUID.randomUUID().toString())
+        .accessTokenIssuedAt(now)
+        .accessTokenExpiresAt(now.plusHours(1))
+        .modifiedAt(now)
+        .build();
+  }
+
+  private int countRows() {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM identity_authorizations WHERE principal_id LIKE ?",
+        Integer.class,
+        principalPrefix + "%");
+  }
+}
@@ -0,0 +1,133 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.authorization.data.authorization.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.asc.authorization.data.authorization.entity.AuthorizationEntity;
+import java.sql.PreparedStatement;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+class JdbcAuthorizationRepositoryTest {
+  private JdbcTemplate jdbcTemplate;
+  private JdbcAuthorizationRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    repository = new JdbcAuthorizationRepository(jdbcTemplate, "UTC");
+  }
+
+  @Test
+  void testUpsertExistingRowOnlyUpdates() {
+    when(jdbcTemplate.update(startsWith("UPDATE"), any(PreparedStatementSetter.class)))
+        .thenReturn(1);
+
+    repository.upsert(entity("user"));
+
+    verify(jdbcTemplate, never()).update(startsWith("INSERT"), any(PreparedStatementSetter.class));
+  }
+
+  @Test
+  void testUpsertMissingRowInserts() {
+    when(jdbcTemplate.update(startsWith("UPDATE"), any(PreparedStatementSetter.class)))
+        .thenReturn(0);
+
+    repository.upsert(entity("user"));
+
+    verify(jdbcTemplate).update(startsWith("INSERT"), any(PreparedStatementSetter.class));
+  }
+
+  @Test
+  void testUpsertConcurrentInsertUpdatesAgain() {
+    when(jdbcTemplate.update(startsWith("UPDATE"), any(PreparedStatementSetter.class)))
+        .thenReturn(0, 1);
+    when(jdbcTemplate.update(startsWith("INSERT"), any(PreparedStatementSetter.class)))
+        .thenThrow(new DuplicateKeyException("Duplicate entry"));
+
+    repository.upsert(entity("user"));
+
+    verify(jdbcTemplate, times(2)).update(startsWith("UPDATE"), any(PreparedStatementSetter.class));
+  }
+
+  @Test
+  void testUpsertConflictingAuthorizationIdFails() {
+    when(jdbcTemplate.update(startsWith("UPDATE"), any(PreparedStatementSetter.class)))
+        .thenReturn(0);
+    when(jdbcTemplate.update(startsWith("INSERT"), any(PreparedStatementSetter.class)))
+        .thenThrow(new DuplicateKeyException("Duplicate entry for key 'UK_id'"));
+
+    assertThrows(DuplicateKeyException.class, () -> repository.upsert(entity("user")));
+  }
+
+  @Test
+  void testUpsertAllInsertsLastEntityOfMissingKeys() throws Exception {
+    var existing = entity("existing");
+    var first = entity("missing");
+    var last = entity("missing");
+    last.setId("last-id");
+    when(jdbcTemplate.batchUpdate(startsWith("UPDATE"), any(BatchPreparedStatementSetter.class)))
+        .thenReturn(new int[] {1, 0, 0});
+    when(jdbcTemplate.batchUpdate(startsWith("INSERT"), any(BatchPreparedStatementSetter.class)))
+        .thenReturn(new int[] {1});
+
+    repository.upsertAll(List.of(existing, first, last));
+
+    var setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+    verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), setter.capture());
+    assertEquals(1, setter.getValue().getBatchSize());
+
+    var ps = mock(PreparedStatement.class);
+    setter.getValue().setValues(ps, 0);
+    verify(ps).setString(1, "last-id");
+  }
+
+  private static String startsWith(String prefix) {
+    return argThat((String sql) -> sql != null && sql.stripLeading().startsWith(prefix));
+  }
+
+  private AuthorizationEntity entity(String principalId) {
+    return AuthorizationEntity.builder()
+        .id(principalId + "-id")
+        .registeredClientId("client")
+        .principalId(principalId)
+        .tenantId(1)
+        .authorizationGrantType("authorization_code")
+        .build();
+  }
+}
@@ -0,0 +1,57 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.application.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration of the cache manager backing {@code @Cacheable} methods. */
+@Configuration
+public class CacheManagerConfiguration {
+
+  /**
+   * Creates the cache manager. Hazelcast caches get a local tier unless local caches are disabled.
+   *
+   * @param hazelcastInstance the Hazelcast instance
+   * @param properties the local cache properties
+   * @param meterRegistry the meter registry
+   * @return the cache manager
+   */
+  @Bean
+  public CacheManager cacheManager(
+      HazelcastInstance hazelcastInstance,
+      LocalCacheProperties properties,
+      MeterRegistry meterRegistry) {
+    if (!properties.isEnabled()) return new HazelcastCacheManager(hazelcastInstance);
+    return new TwoLevelCacheManager(hazelcastInstance, properties, meterRegistry);
+  }
+}
@@ -0,0 +1,73 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.application.cache;
+
+import java.time.Duration;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/** Configuration properties for the local caches kept in front of the Hazelcast caches. */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "spring.cache.local")
+public class LocalCacheProperties {
+  /** Whether local caches are kept in front of the Hazelcast caches. */
+  private boolean enabled = true;
+
+  /** The names of the caches which get a local tier. All other caches use Hazelcast only. */
+  private Set<String> cacheNames =
+      Set.of(
+          "clients",
+          "registeredClients",
+          "clientAccess",
+          "ascMe",
+          "ascEmail",
+          "ascTenant",
+          "ascSettings");
+
+  /** The maximum serialized size of the entries held by each local cache. */
+  private DataSize maximumWeight = DataSize.ofMegabytes(16);
+
+  /**
+   * How long an entry is kept locally after it was written. Must stay below the shortest
+   * time-to-live of the Hazelcast maps backing the local caches.
+   */
+  private Duration timeToLive = Duration.ofSeconds(10);
+
+  /**
+   * How long before the expiry of a distributed entry it is reloaded in the background when read
+   * through a synchronized cache lookup. Zero disables refresh-ahead.
+   */
+  private Duration refreshAhead = Duration.ofSeconds(60);
+
+  /** The name of the Hazelcast topic used to invalidate local entries on other members. */
+  private String invalidationTopic = "cacheInvalidations";
+}
@@ -0,0 +1,701 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.application.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.map.IMap;
+import com.hazelcast.topic.ITopic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+
+/**
+ * A cache which keeps values in a local Caffeine cache in front of a distributed cache.
+ *
+ * <p>Reads are served locally when possible; otherwise the distributed cache is read and the value
+ * is kept locally. Callers never share a mutable instance: values of immutable types, such as
+ * strings, boxed primitives, enums and records made of those, are kept and returned as they are,
+ * while any other value is kept serialized and every local hit returns a fresh copy, just like a
+ * read from the distributed cache would. Values which cannot be serialized are not kept locally.
+ *
+ * <p>Local entries are bounded by their size and expire shortly after they were written. The size
+ * of a serialized value is its length; the size of a shared value is the cost Hazelcast reports for
+ * the distributed copy when its entry view is read anyway, and a shallow estimate of the value
+ * otherwise.
+ *
+ * <p>Evictions are applied to both tiers and published on a Hazelcast topic, so other members drop
+ * their local copies too. Puts are not published: they only follow a miss and store the value every
+ * member would load.
+ *
+ * <p>Loads requested through {@link #get(Object, Callable)}, as done by {@code Cacheable(sync =
+ * true)}, are coalesced: concurrent misses for a key on this member wait for a single load, which
+ * the distributed cache serializes across members. Entries whose distributed copy is about to
+ * expire are reloaded in the background by one member, so hot keys never expire for all callers at
+ * once.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+  private static final int UNKNOWN_WEIGHT = 1024;
+  private static final int OBJECT_OVERHEAD = 16;
+  private static final int REFERENCE_SIZE = 8;
+  private static final int MAX_WEIGH_DEPTH = 3;
+  private static final Set<Class<?>> IMMUTABLE_TYPES =
+      Set.of(
+          String.class,
+          Boolean.class,
+          Character.class,
+          Byte.class,
+          Short.class,
+          Integer.class,
+          Long.class,
+          Float.class,
+          Double.class,
+          UUID.class);
+  private static final Serializer<Object> SERIALIZER = new DefaultSerializer();
+  private static final Deserializer<Object> DESERIALIZER =
+      new DefaultDeserializer(TwoLevelCache.class.getClassLoader());
+
+  private static final ClassValue<Boolean> SHARED_TYPES =
+      new ClassValue<>() {
+        protected Boolean computeValue(Class<?> type) {
+          return isImmutable(type);
+        }
+      };
+
+  private static final ClassValue<List<Field>> WEIGHED_FIELDS =
+      new ClassValue<>() {
+        protected List<Field> computeValue(Class<?> type) {
+          var fields = new ArrayList<Field>();
+          for (var c = type; c != null && !isPlatformType(c); c = c.getSuperclass())
+            for (var field : c.getDeclaredFields())
+              if (!Modifier.isStatic(field.getModifiers()) && field.trySetAccessible())
+                fields.add(field);
+          return List.copyOf(fields);
+        }
+      };
+
+  private final String name;
+  private final com.github.benmanes.caffeine.cache.Cache<Object, LocalEntry> local;
+  private final Cache distributed;
+  private final IMap<Object, Object> distributedMap;
+  private final ITopic<CacheInvalidationMessage> invalidations;
+  private final Executor refreshExecutor;
+  private final long refreshAheadMillis;
+  private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+  private final Set<Object> refreshes = ConcurrentHashMap.newKeySet();
+  private final Counter localHits;
+  private final Counter distributedHits;
+  private final Counter misses;
+  private final Counter coalescedLoads;
+  private final Counter refreshedLoads;
+
+  /**
+   * A locally kept value.
+   *
+   * @param value the shared value, or null if the value is kept serialized
+   * @param serialized the serialized value, or null if the value is shared
+   * @param refreshAt the epoch millisecond from which the value should be reloaded ahead of its
+   *     distributed expiry, or {@link Long#MAX_VALUE} if unknown
+   * @param weight the estimated size of the value in bytes
+   */
+  private record LocalEntry(Object value, byte[] serialized, long refreshAt, int weight) {}
+
+  /**
+   * Constructs a new TwoLevelCache.
+   *
+   * @param distributed the distributed cache
+   * @param properties the local cache properties
+   * @param invalidations the topic to publish evictions on
+   * @param refreshExecutor the executor running refresh-ahead loads
+   * @param meterRegistry the registry to publish per-tier hit metrics to
+   */
+  @SuppressWarnings("unchecked")
+  public TwoLevelCache(
+      Cache distributed,
+      LocalCacheProperties properties,
+      ITopic<CacheInvalidationMessage> invalidations,
+      Executor refreshExecutor,
+      MeterRegistry meterRegistry) {
+    this.name = distributed.getName();
+    this.distributed = distributed;
+    this.distributedMap =
+        distributed.getNativeCache() instanceof IMap<?, ?> map ? (IMap<Object, Object>) map : null;
+    this.invalidations = invalidations;
+    this.refreshExecutor = refreshExecutor;
+    this.refreshAheadMillis = properties.getRefreshAhead().toMillis();
+    this.local =
+        Caffeine.newBuilder()
+            .maximumWeight(properties.getMaximumWeight().toBytes())
+            .<Object, LocalEntry>weigher((key, entry) -> entry.weight())
+            .expireAfterWrite(properties.getTimeToLive())
+            .build();
+    this.localHits = counter(meterRegistry, "cache.tier.gets", "tier", "local", "result", "hit");
+    this.distributedHits =
+        counter(meterRegistry, "cache.tier.gets", "tier", "distributed", "result", "hit");
+    this.misses =
+        counter(meterRegistry, "cache.tier.gets", "tier", "distributed", "result", "miss");
+    this.coalescedLoads = counter(meterRegistry, "cache.tier.loads", "result", "coalesced");
+    this.refreshedLoads = counter(meterRegistry, "cache.tier.loads", "result", "refreshed");
+  }
+
+  /**
+   * Returns the name of the cache.
+   *
+   * @return the cache name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the native cache of the distributed tier.
+   *
+   * @return the distributed native cache
+   */
+  public Object getNativeCache() {
+    return distributed.getNativeCache();
+  }
+
+  /**
+   * Returns the value mapped to the key, reading the local tier first.
+   *
+   * @param key the key
+   * @return the value wrapper, or null if neither tier holds the key
+   */
+  public ValueWrapper get(Object key) {
+    var entry = local.getIfPresent(key);
+    if (entry != null) {
+      localHits.increment();
+      return new SimpleValueWrapper(read(entry));
+    }
+
+    var wrapper = distributed.get(key);
+    if (wrapper == null) {
+      misses.increment();
+      return null;
+    }
+
+    distributedHits.increment();
+    keep(key, toLocalEntry(wrapper.get(), Long.MAX_VALUE, 0));
+    return wrapper;
+  }
+
+  /**
+   * Returns the value mapped to the key, checking it against the required type.
+   *
+   * @param key the key
+   * @param type the required type, or null for any type
+   * @param <T> the type of the value
+   * @return the value, or null if neither tier holds the key
+   * @throws IllegalStateException if the value is not of the required type
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    var wrapper = get(key);
+    var value = wrapper != null ? wrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value))
+      throw new IllegalStateException(
+          String.format("Cached value is not of required type %s", type.getName()));
+
+    return (T) value;
+  }
+
+  /**
+   * Returns the value mapped to the key, loading it through the distributed cache on a miss.
+   * Concurrent misses for the same key wait for the first one to load the value, and each of them
+   * gets its own copy unless the value is immutable. A value due for refresh is returned right away
+   * and reloaded in the background.
+   *
+   * @param key the key
+   * @param valueLoader the loader of the value
+   * @param <T> the type of the value
+   * @return the value
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    var entry = local.getIfPresent(key);
+    if (entry != null) {
+      localHits.increment();
+      refreshIfDue(key, entry, valueLoader);
+      return (T) read(entry);
+    }
+
+    var load = new CompletableFuture<Object>();
+    var pending = loads.putIfAbsent(key, load);
+    if (pending != null) {
+      coalescedLoads.increment();
+      return (T) copy(await(pending));
+    }
+
+    try {
+      var value = getThrough(key, valueLoader);
+      load.complete(value);
+      return (T) value;
+    } catch (RuntimeException e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loads.remove(key, load);
+    }
+  }
+
+  /**
+   * Reads the value from the distributed tier, loading it there on a miss, and keeps it locally
+   * together with the time it is due for refresh.
+   *
+   * @param key the key
+   * @param valueLoader the loader of the value
+   * @return the value
+   */
+  private Object getThrough(Object key, Callable<?> valueLoader) {
+    var wrapper = distributed.get(key);
+    if (wrapper != null) {
+      distributedHits.increment();
+      if (wrapper.get() == null) return null;
+
+      var entry = toLocalEntry(key, wrapper.get());
+      keep(key, entry);
+      if (entry != null) refreshIfDue(key, entry, valueLoader);
+      return wrapper.get();
+    }
+
+    misses.increment();
+    var value = distributed.get(key, valueLoader);
+    if (value != null) keep(key, toLocalEntry(key, value));
+    return value;
+  }
+
+  /**
+   * Waits for a load started by another caller.
+   *
+   * @param load the pending load
+   * @return the loaded value
+   */
+  private Object await(CompletableFuture<Object> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      throw e;
+    }
+  }
+
+  /**
+   * Schedules a background reload of the key if its distributed copy is about to expire and no
+   * reload of it is running on this member yet.
+   *
+   * @param key the key
+   * @param entry the locally kept entry
+   * @param valueLoader the loader of the value
+   */
+  private void refreshIfDue(Object key, LocalEntry entry, Callable<?> valueLoader) {
+    if (entry.refreshAt() > System.currentTimeMillis() || !refreshes.add(key)) return;
+
+    refreshExecutor.execute(
+        () -> {
+          try {
+            refresh(key, valueLoader);
+          } catch (Exception e) {
+            log.warn("Could not refresh an entry of cache {} ahead of its expiry", name, e);
+          } finally {
+            refreshes.remove(key);
+          }
+        });
+  }
+
+  /**
+   * Reloads the key into the distributed tier unless another member is reloading it or already has,
+   * then drops the local copy so the next read picks up the new value and expiry.
+   *
+   * @param key the key
+   * @param valueLoader the loader of the value
+   * @throws Exception if the value cannot be loaded
+   */
+  private void refresh(Object key, Callable<?> valueLoader) throws Exception {
+    if (getRefreshAt(key) <= System.currentTimeMillis() && distributedMap.tryLock(key)) {
+      try {
+        if (getRefreshAt(key) <= System.currentTimeMillis()) {
+          distributed.put(key, valueLoader.call());
+          refreshedLoads.increment();
+        }
+      } finally {
+        distributedMap.unlock(key);
+      }
+    }
+
+    local.invalidate(key);
+  }
+
+  /**
+   * Builds the local entry of a value read through the distributed tier. When refresh-ahead
+   * applies, the entry view read for the expiry also provides the cost of the distributed copy.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the local entry, or null if the value cannot be kept locally
+   */
+  private LocalEntry toLocalEntry(Object key, Object value) {
+    if (refreshAheadMillis <= 0 || distributedMap == null)
+      return toLocalEntry(value, Long.MAX_VALUE, 0);
+
+    var view = distributedMap.getEntryView(key);
+    if (view == null) return toLocalEntry(value, Long.MAX_VALUE, 0);
+
+    var refreshAt =
+        view.getExpirationTime() == Long.MAX_VALUE
+            ? Long.MAX_VALUE
+            : view.getExpirationTime() - refreshAheadMillis;
+    return toLocalEntry(value, refreshAt, view.getCost());
+  }
+
+  /**
+   * Builds a local entry which shares immutable values and serializes any other value. Shared
+   * values are weighed by the given cost or, if it is unknown, by a shallow estimate; serialized
+   * values by their length.
+   *
+   * @param value the value, may be null
+   * @param refreshAt the epoch millisecond from which the value should be reloaded
+   * @param cost the cost of the distributed copy, or zero if unknown
+   * @return the local entry, or null if the value is null or cannot be serialized
+   */
+  private LocalEntry toLocalEntry(Object value, long refreshAt, long cost) {
+    if (value == null) return null;
+    if (SHARED_TYPES.get(value.getClass())) {
+      var weight = cost > 0 ? (int) Math.min(Integer.MAX_VALUE, cost) : weigh(value);
+      return new LocalEntry(value, null, refreshAt, weight);
+    }
+
+    var serialized = serialize(value);
+    if (serialized == null) return null;
+    return new LocalEntry(null, serialized, refreshAt, OBJECT_OVERHEAD + serialized.length);
+  }
+
+  /**
+   * Keeps an entry in the local tier, or drops the local copy of the key if there is no entry.
+   *
+   * @param key the key
+   * @param entry the local entry, may be null
+   */
+  private void keep(Object key, LocalEntry entry) {
+    if (entry != null) local.put(key, entry);
+    else local.invalidate(key);
+  }
+
+  /**
+   * Returns the value of a local entry, deserializing a fresh copy unless the value is shared.
+   *
+   * @param entry the local entry
+   * @return the value
+   */
+  private Object read(LocalEntry entry) {
+    if (entry.serialized() == null) return entry.value();
+
+    try {
+      return DESERIALIZER.deserializeFromByteArray(entry.serialized());
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          String.format("Could not read a local entry of cache %s", name), e);
+    }
+  }
+
+  /**
+   * Returns a copy of a value unless it is immutable. Values which cannot be serialized are
+   * returned as they are.
+   *
+   * @param value the value, may be null
+   * @return the copy, or the value itself
+   */
+  private Object copy(Object value) {
+    var entry = toLocalEntry(value, Long.MAX_VALUE, 0);
+    return entry != null ? read(entry) : value;
+  }
+
+  /**
+   * Serializes a value kept locally.
+   *
+   * @param value the value
+   * @return the serialized value, or null if the value is not serializable
+   */
+  private byte[] serialize(Object value) {
+    if (!(value instanceof Serializable)) return null;
+
+    try {
+      return SERIALIZER.serializeToByteArray(value);
+    } catch (IOException e) {
+      log.debug("Could not keep a value of cache {} locally", name, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the time from which the key should be reloaded ahead of its distributed expiry.
+   *
+   * @param key the key
+   * @return the epoch millisecond, or {@link Long#MAX_VALUE} if refresh-ahead does not apply
+   */
+  private long getRefreshAt(Object key) {
+    if (refreshAheadMillis <= 0 || distributedMap == null) return Long.MAX_VALUE;
+
+    var view = distributedMap.getEntryView(key);
+    if (view == null || view.getExpirationTime() == Long.MAX_VALUE) return Long.MAX_VALUE;
+    return view.getExpirationTime() - refreshAheadMillis;
+  }
+
+  /**
+   * Stores the value in both tiers.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public void put(Object key, Object value) {
+    distributed.put(key, value);
+    keep(key, toLocalEntry(value, Long.MAX_VALUE, 0));
+  }
+
+  /**
+   * Stores the value in the distributed tier unless it holds the key already, and keeps the
+   * resulting value locally.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the existing value wrapper, or null if the value was stored
+   */
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    var existing = distributed.putIfAbsent(key, value);
+    var current = existing != null ? existing.get() : value;
+    keep(key, toLocalEntry(current, Long.MAX_VALUE, 0));
+    return existing;
+  }
+
+  /**
+   * Evicts the key from both tiers and from the local tiers of other members.
+   *
+   * @param key the key
+   */
+  public void evict(Object key) {
+    distributed.evict(key);
+    local.invalidate(key);
+    publish(key);
+  }
+
+  /**
+   * Evicts the key from both tiers without publishing the eviction. Meant for evictions which every
+   * member performs on its own, such as those triggered by a topic message.
+   *
+   * @param key the key
+   */
+  public void evictQuietly(Object key) {
+    distributed.evict(key);
+    local.invalidate(key);
+  }
+
+  /**
+   * Evicts the key from both tiers and from the local tiers of other members.
+   *
+   * @param key the key
+   * @return true if the distributed tier held the key, false otherwise
+   */
+  public boolean evictIfPresent(Object key) {
+    var present = distributed.evictIfPresent(key);
+    local.invalidate(key);
+    publish(key);
+    return present;
+  }
+
+  /** Clears both tiers and the local tiers of other members. */
+  public void clear() {
+    distributed.clear();
+    local.invalidateAll();
+    publish(null);
+  }
+
+  /**
+   * Invalidates both tiers and the local tiers of other members.
+   *
+   * @return true if the distributed tier held any entries, false otherwise
+   */
+  public boolean invalidate() {
+    var present = distributed.invalidate();
+    local.invalidateAll();
+    publish(null);
+    return present;
+  }
+
+  /**
+   * Drops an entry, or all entries, from the local tier only.
+   *
+   * @param key the key to drop, or null to drop all entries
+   */
+  void invalidateLocal(Object key) {
+    if (key == null) local.invalidateAll();
+    else local.invalidate(key);
+  }
+
+  /**
+   * Publishes an eviction to other members. Failures are logged, as the local entries of other
+   * members expire shortly anyway.
+   *
+   * @param key the evicted key, or null if all entries were evicted
+   */
+  private void publish(Object key) {
+    try {
+      invalidations.publish(new CacheInvalidationMessage(name, key));
+    } catch (Exception e) {
+      log.warn("Could not publish local cache invalidation for cache {}", name, e);
+    }
+  }
+
+  /**
+   * Registers a counter tagged with the name of this cache.
+   *
+   * @param meterRegistry the meter registry
+   * @param metric the metric name
+   * @param tags the additional tag keys and values
+   * @return the counter
+   */
+  private Counter counter(MeterRegistry meterRegistry, String metric, String... tags) {
+    return Counter.builder(metric).tag("cache", name).tags(tags).register(meterRegistry);
+  }
+
+  /**
+   * Checks whether instances of a type can be shared between callers: immutable JDK value types,
+   * enums, and records whose components are all of such types.
+   *
+   * @param type the type
+   * @return true if instances of the type are immutable, false otherwise
+   */
+  private static boolean isImmutable(Class<?> type) {
+    if (type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type)) return true;
+    if (type.getPackageName().equals("java.time")) return Modifier.isFinal(type.getModifiers());
+    if (!type.isRecord()) return false;
+
+    for (var component : type.getRecordComponents())
+      if (component.getType() != type && !SHARED_TYPES.get(component.getType())) return false;
+    return true;
+  }
+
+  /**
+   * Estimates the weight of a value without serializing it. Strings, byte arrays and collections
+   * are sized by their length; other objects by their fields, down to a fixed depth.
+   *
+   * @param value the value
+   * @return the estimated size in bytes
+   */
+  private static int weigh(Object value) {
+    return (int) Math.min(Integer.MAX_VALUE, estimate(value, MAX_WEIGH_DEPTH));
+  }
+
+  /**
+   * Estimates the size of a value.
+   *
+   * @param value the value, may be null
+   * @param depth the number of object levels still to descend into
+   * @return the estimated size in bytes
+   */
+  private static long estimate(Object value, int depth) {
+    if (value == null) return 0;
+    if (value instanceof CharSequence text) return OBJECT_OVERHEAD + 2L * text.length();
+    if (value instanceof byte[] bytes) return OBJECT_OVERHEAD + bytes.length;
+    if (value instanceof Number
+        || value instanceof Boolean
+        || value instanceof Character
+        || value instanceof Enum<?>) return OBJECT_OVERHEAD;
+    if (value.getClass().isArray() && value.getClass().getComponentType().isPrimitive())
+      return OBJECT_OVERHEAD + (long) REFERENCE_SIZE * Array.getLength(value);
+    if (depth == 0) return UNKNOWN_WEIGHT;
+
+    var weight = (long) OBJECT_OVERHEAD;
+    if (value instanceof Collection<?> collection) {
+      for (var element : collection) weight += REFERENCE_SIZE + estimate(element, depth - 1);
+      return weight;
+    }
+
+    if (value instanceof Map<?, ?> map) {
+      for (var e : map.entrySet())
+        weight +=
+            2 * REFERENCE_SIZE
+                + estimate(e.getKey(), depth - 1)
+                + estimate(e.getValue(), depth - 1);
+      return weight;
+    }
+
+    if (value instanceof Object[] array) {
+      for (var element : array) weight += REFERENCE_SIZE + estimate(element, depth - 1);
+      return weight;
+    }
+
+    if (isPlatformType(value.getClass())) return 2 * OBJECT_OVERHEAD;
+
+    for (var field : WEIGHED_FIELDS.get(value.getClass())) {
+      weight += REFERENCE_SIZE;
+      if (field.getType().isPrimitive()) continue;
+
+      try {
+        weight += estimate(field.get(value), depth - 1);
+      } catch (IllegalAccessException e) {
+        weight += UNKNOWN_WEIGHT;
+      }
+    }
+
+    return weight;
+  }
+
+  /**
+   * Checks whether a type belongs to the Java platform, whose fields are not inspected.
+   *
+   * @param type the type
+   * @return true if the type is a platform type, false otherwise
+   */
+  private static boolean isPlatformType(Class<?> type) {
+    var name = type.getName();
+    return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.");
+  }
+}
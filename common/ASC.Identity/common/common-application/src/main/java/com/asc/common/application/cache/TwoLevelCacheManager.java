@@ -0,0 +1,116 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.application.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Cache manager which serves Hazelcast caches, putting a local {@link TwoLevelCache} tier in front
+ * of the caches listed in {@link LocalCacheProperties#getCacheNames()}.
+ *
+ * <p>Evictions published by other members are applied to the local tiers of this member.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+  private final CacheManager distributedCacheManager;
+  private final LocalCacheProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final ITopic<CacheInvalidationMessage> invalidations;
+  private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+  private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  /**
+   * Constructs a new TwoLevelCacheManager and subscribes to the invalidation topic.
+   *
+   * @param hazelcastInstance the Hazelcast instance backing the distributed tier
+   * @param properties the local cache properties
+   * @param meterRegistry the registry to publish per-tier hit metrics to
+   */
+  public TwoLevelCacheManager(
+      HazelcastInstance hazelcastInstance,
+      LocalCacheProperties properties,
+      MeterRegistry meterRegistry) {
+    this.distributedCacheManager = new HazelcastCacheManager(hazelcastInstance);
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.invalidations = hazelcastInstance.getTopic(properties.getInvalidationTopic());
+    this.invalidations.addMessageListener(this::onInvalidation);
+  }
+
+  /**
+   * Returns the cache with the given name, creating its local tier if configured.
+   *
+   * @param name the cache name
+   * @return the cache, or null if the distributed cache manager does not provide it
+   */
+  public Cache getCache(String name) {
+    return caches.computeIfAbsent(
+        name,
+        cacheName -> {
+          var distributed = distributedCacheManager.getCache(cacheName);
+          if (distributed == null || !properties.getCacheNames().contains(cacheName))
+            return distributed;
+
+          return new TwoLevelCache(
+              distributed, properties, invalidations, refreshExecutor, meterRegistry);
+        });
+  }
+
+  /**
+   * Returns the names of the caches known to the distributed cache manager.
+   *
+   * @return the cache names
+   */
+  public Collection<String> getCacheNames() {
+    return distributedCacheManager.getCacheNames();
+  }
+
+  /**
+   * Drops the entries named by an invalidation published by another member from the local tier.
+   *
+   * @param message the invalidation message
+   */
+  private void onInvalidation(Message<CacheInvalidationMessage> message) {
+    var member = message.getPublishingMember();
+    if (member != null && member.localMember()) return;
+
+    var invalidation = message.getMessageObject();
+    if (caches.get(invalidation.cacheName()) instanceof TwoLevelCache cache)
+      cache.invalidateLocal(invalidation.key());
+  }
+}
@@ -0,0 +1,144 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.application.client;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Generates the cache keys of {@link AscApiClient} responses.
+ *
+ * <p>A key combines the host of the portal the request is sent to with either the requested email,
+ * for lookups by email, or a SHA-256 hash of the cookie. The same cookie or email on two portals
+ * therefore never shares an entry, and raw cookies are never stored as keys. Calls without a base
+ * URI are sent to the configured ASC service, whose host is used instead.
+ */
+@Component(AscApiCacheKeyGenerator.NAME)
+public class AscApiCacheKeyGenerator implements KeyGenerator {
+  public static final String NAME = "ascApiCacheKeyGenerator";
+
+  private static final String COOKIE_HEADER = "Cookie";
+  private static final String EMAIL_PARAM = "email";
+
+  private final String defaultHost;
+
+  /**
+   * Constructs a new AscApiCacheKeyGenerator.
+   *
+   * @param serviceUrl the URL of the ASC service used by calls without a base URI
+   */
+  public AscApiCacheKeyGenerator(@Value("${asc-service.url:}") String serviceUrl) {
+    this.defaultHost = getHost(serviceUrl.isBlank() ? null : URI.create(serviceUrl));
+  }
+
+  /**
+   * Generates the cache key for a call to the ASC API.
+   *
+   * @param target the client instance
+   * @param method the called method
+   * @param params the arguments of the call
+   * @return the cache key, host and subject separated by a colon
+   */
+  public Object generate(Object target, Method method, Object... params) {
+    var host = defaultHost;
+    String email = null;
+    String cookie = null;
+
+    var parameters = method.getParameters();
+    for (int i = 0; i < parameters.length && i < params.length; i++) {
+      var parameter = parameters[i];
+      if (params[i] instanceof URI base) host = getHost(base);
+      else if (isEmail(parameter)) email = (String) params[i];
+      else if (isCookie(parameter)) cookie = (String) params[i];
+    }
+
+    if (email != null) return host + ":" + email.toLowerCase(Locale.ROOT);
+    return host + ":" + hash(cookie);
+  }
+
+  /**
+   * Checks whether a parameter is the requested email.
+   *
+   * @param parameter the method parameter
+   * @return true if the parameter is the email request parameter, false otherwise
+   */
+  private boolean isEmail(Parameter parameter) {
+    var annotation = parameter.getAnnotation(RequestParam.class);
+    return annotation != null && EMAIL_PARAM.equals(annotation.value());
+  }
+
+  /**
+   * Checks whether a parameter is the cookie header.
+   *
+   * @param parameter the method parameter
+   * @return true if the parameter is the cookie header, false otherwise
+   */
+  private boolean isCookie(Parameter parameter) {
+    var annotation = parameter.getAnnotation(RequestHeader.class);
+    return annotation != null && COOKIE_HEADER.equalsIgnoreCase(annotation.value());
+  }
+
+  /**
+   * Returns the normalized host and port of a URI.
+   *
+   * @param uri the URI, may be null
+   * @return the lower-cased authority of the URI, or an empty string if there is none
+   */
+  private String getHost(URI uri) {
+    if (uri == null || uri.getAuthority() == null) return "";
+    return uri.getAuthority().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Hashes a cookie, so it can be used as part of a key without being stored.
+   *
+   * @param cookie the cookie, may be null
+   * @return the hex-encoded SHA-256 hash of the cookie, or an empty string if there is none
+   */
+  private String hash(String cookie) {
+    if (cookie == null) return "";
+
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(cookie.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
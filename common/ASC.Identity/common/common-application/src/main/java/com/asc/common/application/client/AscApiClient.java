@@ -75,6 +75,9 @@ import org.springframework.web.bind.annotation.RequestParam;
  * asc-service:
  *   url: http://localhost:8080  # Assuming the local instance is running on port 8080
  * </pre>
+ *
+ * <p>Responses are cached per portal host by {@link AscApiCacheKeyGenerator}. Failed responses,
+ * including those of the fallback, are not cached.
  */
 @Primary
 @FeignClient(
@@ -86,60 +89,60 @@ public interface AscApiClient {
   @RequestMapping(method = RequestMethod.GET, value = "${web.api}/people/@self")
   @Cacheable(
       cacheNames = {"ascMe"},
-      key = "#cookie",
-      unless = "#result == null")
+      keyGenerator = AscApiCacheKeyGenerator.NAME,
+      unless = "#result == null || #result.statusCode != 200")
   AscResponseWrapper<AscPersonResponse> getMe(@RequestHeader("Cookie") String cookie);
 
   @RequestMapping(method = RequestMethod.GET, value = "${web.api}/people/email")
   @Cacheable(
       cacheNames = {"ascEmail"},
-      key = "#email",
-      unless = "#result == null")
+      keyGenerator = AscApiCacheKeyGenerator.NAME,
+      unless = "#result == null || #result.statusCode != 200")
   AscResponseWrapper<AscPersonResponse> getProfile(
       @RequestHeader("Cookie") String cookie, @RequestParam("email") String email);
 
   @RequestMapping(method = RequestMethod.GET, value = "${web.api}/portal")
   @Cacheable(
       cacheNames = {"ascTenant"},
-      key = "#cookie",
-      unless = "#result == null")
+      keyGenerator = AscApiCacheKeyGenerator.NAME,
+      unless = "#result == null || #result.statusCode != 200")
   AscResponseWrapper<AscTenantResponse> getTenant(@RequestHeader("Cookie") String cookie);
 
   @RequestMapping(method = RequestMethod.GET, value = "${web.api}/settings")
   @Cacheable(
       cacheNames = {"ascSettings"},
-      key = "#cookie",
-      unless = "#result == null")
+      keyGenerator = AscApiCacheKeyGenerator.NAME,
+      unless = "#result == null || #result.statusCode != 200")
   AscResponseWrapper<AscSettingsResponse> getSettings(@RequestHeader("Cookie") String cookie);
 
   // Dynamic URI calls
   @RequestMapping(method = RequestMethod.GET, value = "${web.api}/people/@self")
   @Cacheable(
       cacheNames = {"ascMe"},
-      key = "#cookie",
-      unless = "#result == null")
+      keyGenerator = AscApiCacheKeyGenerator.NAME,
+      unless = "#result == null || #result.statusCode != 200")
   AscResponseWrapper<AscPersonResponse> getMe(URI base, @RequestHeader("Cookie") String cookie);
 
   @RequestMapping(method = RequestMethod.GET, value = "${web.api}/people/email")
   @Cacheable(
       cacheNames = {"ascEmail"},
-      key = "#email",
-      unless = "#result == null")
+      keyGenerator = AscApiCacheKeyGenerator.NAME,
+      unless = "#result == null || #result.statusCode != 200")
   AscResponseWrapper<AscPersonResponse> getProfile(
       URI base, @RequestHeader("Cookie") String cookie, @RequestParam("email") String email);
 
   @RequestMapping(method = RequestMethod.GET, value = "${web.api}/portal")
   @Cacheable(
       cacheNames = {"ascTenant"},
-      key = "#cookie",
-      unless = "#result == null")
+      keyGenerator = AscApiCacheKeyGenerator.NAME,
+      unless = "#result == null || #result.statusCode != 200")
   AscResponseWrapper<AscTenantResponse> getTenant(URI base, @RequestHeader("Cookie") String cookie);
 
   @RequestMapping(method = RequestMethod.GET, value = "${web.api}/settings")
   @Cacheable(
       cacheNames = {"ascSettings"},
-      key = "#cookie",
-      unless = "#result == null")
+      keyGenerator = AscApiCacheKeyGenerator.NAME,
+      unless = "#result == null || #result.statusCode != 200")
   AscResponseWrapper<AscSettingsResponse> getSettings(
       URI base, @RequestHeader("Cookie") String cookie);
 }
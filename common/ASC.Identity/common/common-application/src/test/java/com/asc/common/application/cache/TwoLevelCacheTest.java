@@ -0,0 +1,269 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TwoLevelCacheTest {
+  private static final String CACHE = "clients";
+  private static final int CALLERS = 8;
+
+  private Map<Object, Object> store;
+  private List<Map.Entry<HazelcastInstance, MessageListener<CacheInvalidationMessage>>> listeners;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    store = new ConcurrentHashMap<>();
+    listeners = new CopyOnWriteArrayList<>();
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void testConcurrentMissesTriggerOneLoad() throws Exception {
+    var cache = member().getCache(CACHE);
+    var loads = new AtomicInteger();
+    var release = new CountDownLatch(1);
+    Callable<Value> loader =
+        () -> {
+          loads.incrementAndGet();
+          release.await();
+          return new Value("value");
+        };
+
+    try (var executor = Executors.newFixedThreadPool(CALLERS)) {
+      var futures =
+          Collections.nCopies(CALLERS, (Callable<Value>) () -> cache.get("key", loader)).stream()
+              .map(executor::submit)
+              .toList();
+      awaitCoalescedLoads(CALLERS - 1);
+      release.countDown();
+
+      var values = Collections.newSetFromMap(new IdentityHashMap<Value, Boolean>());
+      for (Future<Value> future : futures) {
+        var value = future.get(5, TimeUnit.SECONDS);
+        assertEquals("value", value.getName());
+        values.add(value);
+      }
+
+      assertEquals(1, loads.get());
+      assertEquals(CALLERS, values.size());
+    }
+  }
+
+  @Test
+  void testEvictClearsLocalTierOfOtherMember() {
+    var first = member().getCache(CACHE);
+    var second = member().getCache(CACHE);
+    first.put("key", "value");
+    assertEquals("value", second.get("key").get());
+
+    store.put("key", "changed");
+    assertEquals("value", second.get("key").get());
+
+    first.evict("key");
+
+    assertNull(second.get("key"));
+    assertNull(first.get("key"));
+  }
+
+  @Test
+  void testFailedLoadIsRemovedFromLoads() throws Exception {
+    var cache = assertInstanceOf(TwoLevelCache.class, member().getCache(CACHE));
+
+    assertThrows(
+        RuntimeException.class,
+        () ->
+            cache.get(
+                "key",
+                () -> {
+                  throw new IllegalStateException("unavailable");
+                }));
+
+    assertTrue(getLoads(cache).isEmpty());
+    assertEquals("value", cache.get("key", () -> "value"));
+  }
+
+  @Test
+  void testLocalHitsReturnCopiesOfMutableValues() {
+    var cache = member().getCache(CACHE);
+    var value = new Value("value");
+    cache.put("key", value);
+    value.setName("changed");
+
+    var first = cache.get("key", Value.class);
+    first.setName("changed");
+    var second = cache.get("key", Value.class);
+
+    assertEquals("value", second.getName());
+    assertNotSame(first, second);
+  }
+
+  @Test
+  void testLocalHitsShareImmutableValues() {
+    var cache = member().getCache(CACHE);
+    store.put("key", new Id("client", 1));
+    var first = cache.get("key", Id.class);
+    store.put("key", new Id("client", 2));
+
+    var second = cache.get("key", Id.class);
+
+    assertSame(first, second);
+  }
+
+  /**
+   * Creates a cache manager of a new member sharing the distributed map and the invalidation topic
+   * with the members created before.
+   *
+   * @return the cache manager of the member
+   */
+  @SuppressWarnings("unchecked")
+  private TwoLevelCacheManager member() {
+    var hazelcastInstance = mock(HazelcastInstance.class);
+    IMap<Object, Object> map = mock(IMap.class);
+    ITopic<CacheInvalidationMessage> topic = mock(ITopic.class);
+    when(map.getName()).thenReturn(CACHE);
+    when(map.get(any())).thenAnswer(i -> store.get(i.getArgument(0)));
+    when(map.putIfAbsent(any(), any()))
+        .thenAnswer(i -> store.putIfAbsent(i.getArgument(0), i.getArgument(1)));
+    doAnswer(i -> store.put(i.getArgument(0), i.getArgument(1))).when(map).set(any(), any());
+    doAnswer(i -> store.remove(i.getArgument(0))).when(map).delete(any());
+    when(topic.addMessageListener(any()))
+        .thenAnswer(
+            i -> {
+              listeners.add(Map.entry(hazelcastInstance, i.getArgument(0)));
+              return UUID.randomUUID();
+            });
+    doAnswer(i -> publish(hazelcastInstance, i.getArgument(0))).when(topic).publish(any());
+    when(hazelcastInstance.getMap(CACHE)).thenReturn(map);
+    when(hazelcastInstance.<CacheInvalidationMessage>getTopic(anyString())).thenReturn(topic);
+
+    var properties = new LocalCacheProperties();
+    properties.setCacheNames(Set.of(CACHE));
+    return new TwoLevelCacheManager(hazelcastInstance, properties, meterRegistry);
+  }
+
+  /**
+   * Delivers a message to the listeners of every member, as the Hazelcast topic would.
+   *
+   * @param publisher the Hazelcast instance of the publishing member
+   * @param invalidation the published message
+   * @return null
+   */
+  private Object publish(HazelcastInstance publisher, CacheInvalidationMessage invalidation) {
+    for (var listener : listeners) {
+      var member = mock(Member.class);
+      when(member.localMember()).thenReturn(listener.getKey() == publisher);
+      listener.getValue().onMessage(new Message<>("invalidations", invalidation, 0, member));
+    }
+
+    return null;
+  }
+
+  /**
+   * Waits until the given number of callers joined a pending load.
+   *
+   * @param count the number of coalesced loads
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private void awaitCoalescedLoads(int count) throws InterruptedException {
+    var counter = meterRegistry.get("cache.tier.loads").tag("result", "coalesced").counter();
+    for (var i = 0; i < 500 && counter.count() < count; i++) Thread.sleep(10);
+    assertEquals(count, counter.count());
+  }
+
+  /**
+   * Reads the pending loads of a cache.
+   *
+   * @param cache the cache
+   * @return the pending loads by key
+   * @throws Exception if the field could not be read
+   */
+  private Map<?, ?> getLoads(TwoLevelCache cache) throws Exception {
+    var field = TwoLevelCache.class.getDeclaredField("loads");
+    field.setAccessible(true);
+    return (Map<?, ?>) field.get(cache);
+  }
+
+  /** A mutable cached value. */
+  private static class Value implements Serializable {
+    private String name;
+
+    Value(String name) {
+      this.name = name;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  /**
+   * An immutable cached value.
+   *
+   * @param clientId the client ID
+   * @param tenantId the tenant ID
+   */
+  private record Id(String clientId, int tenantId) implements Serializable {}
+}
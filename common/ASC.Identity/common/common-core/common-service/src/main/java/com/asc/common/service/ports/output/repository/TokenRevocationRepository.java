@@ -0,0 +1,85 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.service.ports.output.repository;
+
+import java.time.Instant;
+
+/**
+ * Interface for the Token Revocation Repository.
+ *
+ * <p>This repository keeps a revocation index which is consulted before serving cached or
+ * self-contained authorizations. Revocations are recorded by token hash and by client and
+ * principal, and are only retained for as long as a revoked token could still be presented.
+ */
+public interface TokenRevocationRepository {
+
+  /**
+   * Records a single token as revoked until it expires.
+   *
+   * @param tokenHash the hash of the revoked token value.
+   * @param expiresAt the expiry of the revoked token, or null to use the default retention.
+   */
+  void revokeToken(String tokenHash, Instant expiresAt);
+
+  /**
+   * Checks whether a single token has been revoked.
+   *
+   * @param tokenHash the hash of the token value.
+   * @return true if the token has been revoked, false otherwise.
+   */
+  boolean isTokenRevoked(String tokenHash);
+
+  /**
+   * Records that every authorization of a principal for a client issued up to the given moment is
+   * revoked.
+   *
+   * @param clientId the identifier of the client.
+   * @param principalId the identifier of the principal.
+   * @param revokedAt the moment of revocation.
+   */
+  void revokeAuthorizations(String clientId, String principalId, Instant revokedAt);
+
+  /**
+   * Records that every authorization of a client issued up to the given moment is revoked.
+   *
+   * @param clientId the identifier of the client.
+   * @param revokedAt the moment of revocation.
+   */
+  void revokeAuthorizations(String clientId, Instant revokedAt);
+
+  /**
+   * Checks whether an authorization of a principal for a client issued at the given moment has been
+   * revoked, either for that principal or for the whole client.
+   *
+   * @param clientId the identifier of the client.
+   * @param principalId the identifier of the principal.
+   * @param issuedAt the moment the most recent token of the authorization was issued.
+   * @return true if the authorization has been revoked, false otherwise.
+   */
+  boolean isAuthorizationRevoked(String clientId, String principalId, Instant issuedAt);
+}
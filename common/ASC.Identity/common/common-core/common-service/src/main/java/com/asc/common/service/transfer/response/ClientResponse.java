@@ -27,6 +27,7 @@
 
 package com.asc.common.service.transfer.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
@@ -134,4 +135,7 @@ public class ClientResponse implements Serializable {
 
   /** Indicates if the client is invalidated. */
   private boolean invalidated;
+
+  /** The optimistic locking version of the client. Not exposed in responses. */
+  @JsonIgnore private Integer version;
 }
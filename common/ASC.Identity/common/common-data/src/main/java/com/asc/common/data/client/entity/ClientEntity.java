@@ -75,6 +75,10 @@ public class ClientEntity implements Serializable {
   @Column(name = "client_secret", unique = true, nullable = false)
   private String clientSecret;
 
+  /** The keyed hash of the plain client secret, used to authenticate the client. */
+  @Column(name = "client_secret_hash", length = 64)
+  private String clientSecretHash;
+
   /** The name of the client. */
   private String name;
 
@@ -27,9 +27,12 @@
 
 package com.asc.common.data.client.repository;
 
+import com.asc.common.core.domain.value.enums.AuthenticationMethod;
 import com.asc.common.data.client.entity.ClientEntity;
+import com.asc.common.data.client.projection.ClientAccessProjection;
 import jakarta.annotation.Nonnull;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -86,6 +89,46 @@ public interface JpaClientRepository extends JpaRepository<ClientEntity, String>
       type = EntityGraph.EntityGraphType.LOAD)
   Optional<ClientEntity> findClientByClientId(String clientId);
 
+  /**
+   * Finds the columns of a client needed to validate its accessibility, without loading its
+   * descriptive columns or collections.
+   *
+   * @param clientId the client_id of the client entity
+   * @return an optional containing the client access projection, or empty if not found
+   */
+  @Query(
+      "SELECT new com.asc.common.data.client.projection.ClientAccessProjection(c.clientId, c.tenantId, c.accessible, c.enabled, c.invalidated) FROM ClientEntity c WHERE c.clientId = :clientId")
+  Optional<ClientAccessProjection> findAccessProjectionByClientId(
+      @Param("clientId") String clientId);
+
+  /**
+   * Finds the names of the scopes assigned to a client.
+   *
+   * @param clientId the client_id of the client entity
+   * @return the scope names
+   */
+  @Query("SELECT s.name FROM ClientEntity c JOIN c.scopes s WHERE c.clientId = :clientId")
+  List<String> findScopeNamesByClientId(@Param("clientId") String clientId);
+
+  /**
+   * Finds the redirect URIs registered for a client.
+   *
+   * @param clientId the client_id of the client entity
+   * @return the redirect URIs
+   */
+  @Query("SELECT r FROM ClientEntity c JOIN c.redirectUris r WHERE c.clientId = :clientId")
+  List<String> findRedirectUrisByClientId(@Param("clientId") String clientId);
+
+  /**
+   * Finds the authentication methods supported by a client.
+   *
+   * @param clientId the client_id of the client entity
+   * @return the authentication methods
+   */
+  @Query("SELECT m FROM ClientEntity c JOIN c.authenticationMethods m WHERE c.clientId = :clientId")
+  List<AuthenticationMethod> findAuthenticationMethodsByClientId(
+      @Param("clientId") String clientId);
+
   /**
    * Deletes a client entity by its ID and tenant ID.
    *
@@ -146,7 +189,7 @@ public interface JpaClientRepository extends JpaRepository<ClientEntity, String>
    */
   @Modifying
   @Query(
-      "UPDATE ClientEntity c SET c.clientSecret = :secret, c.modifiedOn = :modifiedOn WHERE c.clientId = :clientId AND c.tenantId = :tenant")
+      "UPDATE ClientEntity c SET c.clientSecret = :secret, c.clientSecretHash = NULL, c.modifiedOn = :modifiedOn WHERE c.clientId = :clientId AND c.tenantId = :tenant")
   void regenerateClientSecretByClientId(
       @Param("tenant") int tenant,
       @Param("clientId") String clientId,
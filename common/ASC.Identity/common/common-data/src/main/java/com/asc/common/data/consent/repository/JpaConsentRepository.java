@@ -129,4 +129,28 @@ public interface JpaConsentRepository
           "DELETE FROM identity_authorizations WHERE registered_client_id = :registeredClientId",
       nativeQuery = true)
   void deleteAllAuthorizationsByClientId(@Param("registeredClientId") String registeredClientId);
+
+  /**
+   * Deletes a chunk of invalidated consents in primary key order. Their scopes are removed by the
+   * cascading foreign key.
+   *
+   * @param limit the maximum number of consents to delete
+   * @return the number of deleted consents
+   */
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM identity_consents WHERE is_invalidated = 1 ORDER BY registered_client_id, principal_id LIMIT :limit",
+      nativeQuery = true)
+  int deleteInvalidatedConsents(@Param("limit") int limit);
+
+  /**
+   * Counts the invalidated consents.
+   *
+   * @return the number of consents waiting to be deleted
+   */
+  @Query(
+      value = "SELECT COUNT(*) FROM identity_consents WHERE is_invalidated = 1",
+      nativeQuery = true)
+  long countInvalidatedConsents();
 }
@@ -0,0 +1,170 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.data.revocation.adapter;
+
+import com.asc.common.service.ports.output.repository.TokenRevocationRepository;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.replicatedmap.ReplicatedMap;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Adapter class that implements the {@link TokenRevocationRepository} interface on top of a
+ * Hazelcast replicated map, so that every node of the identity cluster answers revocation checks
+ * from local memory.
+ *
+ * <p>Token entries expire together with the token. Client and principal entries hold the moment of
+ * revocation and are retained for one access token lifetime, after which no token issued before the
+ * revocation can still be active.
+ */
+@Slf4j
+@Repository
+public class HazelcastTokenRevocationRepositoryAdapter implements TokenRevocationRepository {
+  private static final String MAP_NAME = "tokenRevocations";
+  private static final String TOKEN_PREFIX = "token:";
+  private static final String AUTHORIZATION_PREFIX = "authorization:";
+  private static final String CLIENT_PREFIX = "client:";
+
+  private final ReplicatedMap<String, Long> revocations;
+  private final Duration retention;
+
+  /**
+   * Constructs a new adapter.
+   *
+   * @param hazelcastInstance the Hazelcast instance of the identity cluster.
+   * @param accessTokenMinutesTTL the access token lifetime, used as the retention of client and
+   *     principal revocations.
+   */
+  public HazelcastTokenRevocationRepositoryAdapter(
+      HazelcastInstance hazelcastInstance,
+      @Value("${spring.security.oauth2.registeredClient.accessTokenMinutesTTL:60}")
+          int accessTokenMinutesTTL) {
+    this.revocations = hazelcastInstance.getReplicatedMap(MAP_NAME);
+    this.retention = Duration.ofMinutes(accessTokenMinutesTTL);
+  }
+
+  /**
+   * Records a single token as revoked until it expires.
+   *
+   * @param tokenHash the hash of the revoked token value.
+   * @param expiresAt the expiry of the revoked token, or null to use the default retention.
+   */
+  public void revokeToken(String tokenHash, Instant expiresAt) {
+    if (tokenHash == null) return;
+
+    var now = Instant.now();
+    var ttl = expiresAt != null ? Duration.between(now, expiresAt) : retention;
+    if (ttl.isNegative() || ttl.isZero()) return;
+
+    revocations.put(
+        TOKEN_PREFIX + tokenHash, now.toEpochMilli(), ttl.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Checks whether a single token has been revoked.
+   *
+   * @param tokenHash the hash of the token value.
+   * @return true if the token has been revoked, false otherwise.
+   */
+  public boolean isTokenRevoked(String tokenHash) {
+    return tokenHash != null && revocations.containsKey(TOKEN_PREFIX + tokenHash);
+  }
+
+  /**
+   * Records that every authorization of a principal for a client issued up to the given moment is
+   * revoked.
+   *
+   * @param clientId the identifier of the client.
+   * @param principalId the identifier of the principal.
+   * @param revokedAt the moment of revocation.
+   */
+  public void revokeAuthorizations(String clientId, String principalId, Instant revokedAt) {
+    MDC.put("client_id", clientId);
+    MDC.put("principal_id", principalId);
+    log.debug("Recording authorization revocation");
+    MDC.clear();
+
+    revocations.put(
+        authorizationKey(clientId, principalId),
+        revokedAt.toEpochMilli(),
+        retention.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Records that every authorization of a client issued up to the given moment is revoked.
+   *
+   * @param clientId the identifier of the client.
+   * @param revokedAt the moment of revocation.
+   */
+  public void revokeAuthorizations(String clientId, Instant revokedAt) {
+    MDC.put("client_id", clientId);
+    log.debug("Recording client-wide authorization revocation");
+    MDC.clear();
+
+    revocations.put(
+        CLIENT_PREFIX + clientId,
+        revokedAt.toEpochMilli(),
+        retention.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Checks whether an authorization of a principal for a client issued at the given moment has been
+   * revoked, either for that principal or for the whole client.
+   *
+   * @param clientId the identifier of the client.
+   * @param principalId the identifier of the principal.
+   * @param issuedAt the moment the most recent token of the authorization was issued.
+   * @return true if the authorization has been revoked, false otherwise.
+   */
+  public boolean isAuthorizationRevoked(String clientId, String principalId, Instant issuedAt) {
+    var issued = issuedAt != null ? issuedAt.toEpochMilli() : Long.MIN_VALUE;
+    var clientRevokedAt = revocations.get(CLIENT_PREFIX + clientId);
+    if (clientRevokedAt != null && clientRevokedAt >= issued) return true;
+
+    var authorizationRevokedAt = revocations.get(authorizationKey(clientId, principalId));
+    return authorizationRevokedAt != null && authorizationRevokedAt >= issued;
+  }
+
+  /**
+   * Builds the key of a client and principal revocation.
+   *
+   * @param clientId the identifier of the client.
+   * @param principalId the identifier of the principal.
+   * @return the revocation key.
+   */
+  private String authorizationKey(String clientId, String principalId) {
+    return String.format("%s%s:%s", AUTHORIZATION_PREFIX, clientId, principalId);
+  }
+}
@@ -27,18 +27,21 @@
 
 package com.asc.common.utilities.crypto;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
 import javax.crypto.Cipher;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
@@ -47,7 +50,24 @@ import javax.crypto.spec.SecretKeySpec;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 
-/** Provides AES encryption and decryption services using the AES/GCM/NoPadding algorithm. */
+/**
+ * Provides AES encryption and decryption services using the AES/GCM/NoPadding algorithm.
+ *
+ * <p>Two ciphertext formats are supported:
+ *
+ * <ul>
+ *   <li>{@link Format#V1} - {@code Base64(iv + salt + cipher)}. The key is derived from the secret
+ *       with a random per-message salt, so every call runs PBKDF2.
+ *   <li>{@link Format#V2} - {@code "v2:" + Base64(iv + cipher)}. The key is derived once per
+ *       process and only the IV is stored per message.
+ * </ul>
+ *
+ * <p>Both formats are always accepted by {@link #decrypt(String)}; the constructor decides which
+ * one {@link #encrypt(String)} produces. Keys derived for V1 salts are kept in a bounded LRU cache.
+ *
+ * <p>Ciphers, key factories and random generators are borrowed from shared {@link
+ * CryptoObjectPool}s instead of being looked up on every call.
+ */
 @Slf4j
 public class AesEncryptionService implements EncryptionService {
   private static final String ALGORITHM = "AES/GCM/NoPadding";
@@ -60,15 +80,103 @@ public class AesEncryptionService implements EncryptionService {
   private static final int ITERATION_COUNT = 1200; // Min 1000
   private static final Charset UTF_8 = StandardCharsets.UTF_8;
 
+  private static final String V2_PREFIX = "v2:";
+  private static final int V2_KEY_LENGTH = 256;
+  private static final int V2_ITERATION_COUNT = 600_000;
+  private static final byte[] V2_SALT = "com.asc.identity.aes.v2".getBytes(UTF_8);
+  private static final int DEFAULT_LEGACY_KEY_CACHE_SIZE = 4096;
+  private static final int PARALLEL_DERIVATION_THRESHOLD = 2;
+  // Base64 characters covering the IV and salt of a legacy cipher text
+  private static final int LEGACY_HEADER_LENGTH = 40;
+
+  private static final CryptoObjectPool<Cipher> CIPHERS =
+      new CryptoObjectPool<>(() -> Cipher.getInstance(ALGORITHM));
+  private static final CryptoObjectPool<SecretKeyFactory> KEY_FACTORIES =
+      new CryptoObjectPool<>(() -> SecretKeyFactory.getInstance(FACTORY_INSTANCE));
+  private static final CryptoObjectPool<SecureRandom> RANDOMS =
+      new CryptoObjectPool<>(SecureRandom::new);
+
+  /** Ciphertext formats produced by {@link #encrypt(String)}. */
+  public enum Format {
+    /** Legacy salted format: {@code Base64(iv + salt + cipher)}. */
+    V1,
+    /** Derived key format: {@code "v2:" + Base64(iv + cipher)}. */
+    V2;
+
+    /**
+     * Resolves a format by its case-insensitive name.
+     *
+     * @param name the format name, e.g. {@code v1} or {@code v2}
+     * @return the matching format
+     * @throws IllegalArgumentException if the name does not match any format
+     */
+    public static Format of(String name) {
+      return valueOf(name.trim().toUpperCase());
+    }
+  }
+
   private final String secret;
+  private final Format format;
+  private final SecretKey derivedKey;
+  private final Map<String, SecretKey> legacyKeys;
 
   /**
-   * Constructs a new AesEncryptionService with the specified secret key.
+   * Constructs a new AesEncryptionService with the specified secret key which writes {@link
+   * Format#V1} ciphertexts.
    *
    * @param secret the secret key to use for encryption and decryption
    */
   public AesEncryptionService(String secret) {
+    this(secret, Format.V1);
+  }
+
+  /**
+   * Constructs a new AesEncryptionService with the specified secret key and output format.
+   *
+   * @param secret the secret key to use for encryption and decryption
+   * @param format the format of the ciphertexts produced by {@link #encrypt(String)}
+   */
+  public AesEncryptionService(String secret, Format format) {
+    this(secret, format, DEFAULT_LEGACY_KEY_CACHE_SIZE);
+  }
+
+  /**
+   * Constructs a new AesEncryptionService with the specified secret key, output format and legacy
+   * key cache size.
+   *
+   * @param secret the secret key to use for encryption and decryption
+   * @param format the format of the ciphertexts produced by {@link #encrypt(String)}
+   * @param legacyKeyCacheSize the maximum number of keys derived for {@link Format#V1} salts to
+   *     keep in memory
+   */
+  public AesEncryptionService(String secret, Format format, int legacyKeyCacheSize) {
     this.secret = secret;
+    this.format = format;
+    this.legacyKeys =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<String, SecretKey> eldest) {
+                return size() > legacyKeyCacheSize;
+              }
+            });
+
+    try {
+      this.derivedKey = deriveKey(V2_SALT, V2_ITERATION_COUNT, V2_KEY_LENGTH);
+    } catch (Exception e) {
+      throw new IllegalStateException("Could not derive encryption key", e);
+    }
+  }
+
+  /**
+   * Checks whether the given cipher text uses the legacy {@link Format#V1} layout and should be
+   * re-encrypted to benefit from the derived key.
+   *
+   * @param cipherText the cipher text to check
+   * @return true if the cipher text is in the legacy format
+   */
+  public boolean isLegacy(String cipherText) {
+    return cipherText != null && !cipherText.startsWith(V2_PREFIX);
   }
 
   /**
@@ -76,63 +184,95 @@ public class AesEncryptionService implements EncryptionService {
    *
    * @param length the length of the nonce to generate
    * @return the generated nonce as a byte array
+   * @throws Exception if a random generator could not be created
    */
-  private byte[] getRandomNonce(int length) {
+  private byte[] getRandomNonce(int length) throws Exception {
     var nonce = new byte[length];
-    new SecureRandom().nextBytes(nonce);
+    RANDOMS.execute(
+        random -> {
+          random.nextBytes(nonce);
+          return nonce;
+        });
 
-    MDC.put("nonce", Arrays.toString(nonce));
-    log.debug("Generating random nonce");
-    MDC.clear();
+    if (log.isDebugEnabled()) {
+      MDC.put("nonce", Arrays.toString(nonce));
+      log.debug("Generating random nonce");
+      MDC.clear();
+    }
 
     return nonce;
   }
 
   /**
-   * Generates a secret key using the specified password and salt.
+   * Derives an AES key from the secret using the specified salt and PBKDF2 parameters.
    *
-   * @param password the password to use for generating the secret key
    * @param salt the salt to use for generating the secret key
+   * @param iterations the PBKDF2 iteration count
+   * @param keyLength the length of the derived key in bits
    * @return the generated secret key
-   * @throws NoSuchAlgorithmException if the algorithm is not available in the environment
-   * @throws InvalidKeySpecException if the key specifications are invalid
+   * @throws Exception if the key could not be derived
    */
-  private SecretKey getSecretKey(String password, byte[] salt)
-      throws NoSuchAlgorithmException, InvalidKeySpecException {
-    MDC.put("password", password);
+  private SecretKey deriveKey(byte[] salt, int iterations, int keyLength) throws Exception {
+    var spec = new PBEKeySpec(secret.toCharArray(), salt, iterations, keyLength);
+    try {
+      return KEY_FACTORIES.execute(
+          factory -> new SecretKeySpec(factory.generateSecret(spec).getEncoded(), ALGORITHM_TYPE));
+    } finally {
+      spec.clearPassword();
+    }
+  }
+
+  /**
+   * Generates a secret key for a legacy ciphertext using the specified salt.
+   *
+   * @param salt the salt to use for generating the secret key
+   * @return the generated secret key
+   * @throws Exception if the key could not be derived
+   */
+  private SecretKey getSecretKey(byte[] salt) throws Exception {
     log.debug("Generating secret key");
-    MDC.clear();
+    return deriveKey(salt, ITERATION_COUNT, KEY_LENGTH);
+  }
+
+  /**
+   * Returns the key derived for a legacy salt, deriving and caching it on a miss.
+   *
+   * @param salt the salt stored in the legacy cipher text
+   * @return the derived secret key
+   * @throws Exception if the key could not be derived
+   */
+  private SecretKey getLegacySecretKey(byte[] salt) throws Exception {
+    var cacheKey = HexEncoder.encode(salt);
+    var secretKey = legacyKeys.get(cacheKey);
+    if (secretKey == null) {
+      secretKey = getSecretKey(salt);
+      legacyKeys.put(cacheKey, secretKey);
+    }
 
-    var spec = new PBEKeySpec(password.toCharArray(), salt, ITERATION_COUNT, KEY_LENGTH);
-    var factory = SecretKeyFactory.getInstance(FACTORY_INSTANCE);
-    return new SecretKeySpec(factory.generateSecret(spec).getEncoded(), ALGORITHM_TYPE);
+    return secretKey;
   }
 
   /**
-   * Initializes a new cipher with the specified mode, secret key, and initialization vector (IV).
+   * Initializes the given cipher with the specified mode, secret key, and initialization vector
+   * (IV).
    *
+   * @param cipher the pooled cipher to initialize
    * @param mode the cipher mode (e.g., Cipher.ENCRYPT_MODE or Cipher.DECRYPT_MODE)
    * @param secretKey the secret key to use for the cipher
    * @param iv the initialization vector to use for the cipher
-   * @return the initialized cipher
    * @throws InvalidKeyException if the key is invalid
    * @throws InvalidAlgorithmParameterException if the algorithm parameters are invalid
-   * @throws NoSuchPaddingException if the padding scheme is not available
-   * @throws NoSuchAlgorithmException if the algorithm is not available in the environment
-   */
-  private Cipher initCipher(int mode, SecretKey secretKey, byte[] iv)
-      throws InvalidKeyException,
-          InvalidAlgorithmParameterException,
-          NoSuchPaddingException,
-          NoSuchAlgorithmException {
-    MDC.put("algorithm", ALGORITHM);
-    MDC.put("tag", String.valueOf(TAG_LENGTH_BIT));
-    log.debug("Initializing a new cipher");
-    MDC.clear();
-
-    var cipher = Cipher.getInstance(ALGORITHM);
+   */
+  private void initCipher(Cipher cipher, int mode, SecretKey secretKey, byte[] iv)
+      throws InvalidKeyException, InvalidAlgorithmParameterException {
+    if (log.isDebugEnabled()) {
+      MDC.put("algorithm", ALGORITHM);
+      MDC.put("tag", String.valueOf(TAG_LENGTH_BIT));
+      log.debug("Initializing a cipher");
+      MDC.clear();
+    }
+
     cipher.init(mode, secretKey, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
-    return cipher;
   }
 
   /**
@@ -143,25 +283,19 @@ public class AesEncryptionService implements EncryptionService {
    * @throws EncryptionException if an error occurs during encryption
    */
   public String encrypt(String plainText) throws EncryptionException {
-    MDC.put("plain_text", plainText);
-    log.debug("Trying to encrypt plain message");
+    if (log.isDebugEnabled()) {
+      MDC.put("plain_text", plainText);
+      log.debug("Trying to encrypt plain message");
+    }
+
     try {
-      var salt = getRandomNonce(SALT_LENGTH_BYTE);
-      var secretKey = getSecretKey(secret, salt);
-      var iv = getRandomNonce(IV_LENGTH_BYTE);
-      var cipher = initCipher(Cipher.ENCRYPT_MODE, secretKey, iv);
-      var encryptedMessageByte = cipher.doFinal(plainText.getBytes(UTF_8));
-      var cipherByte =
-          ByteBuffer.allocate(iv.length + salt.length + encryptedMessageByte.length)
-              .put(iv)
-              .put(salt)
-              .put(encryptedMessageByte)
-              .array();
-
-      var encrypted = Base64.getEncoder().encodeToString(cipherByte);
-
-      MDC.put("cipher_text", encrypted);
-      log.debug("Managed to encrypt plain text message");
+      var encrypted = CIPHERS.execute(cipher -> encrypt(cipher, plainText));
+
+      if (log.isDebugEnabled()) {
+        MDC.put("cipher_text", encrypted);
+        log.debug("Managed to encrypt plain text message");
+      }
+
       return encrypted;
     } catch (Exception e) {
       throw new EncryptionException(e.getMessage());
@@ -170,6 +304,32 @@ public class AesEncryptionService implements EncryptionService {
     }
   }
 
+  /**
+   * Encrypts the specified plain text with a borrowed cipher.
+   *
+   * @param cipher the pooled cipher to use
+   * @param plainText the plain text to encrypt
+   * @return the encrypted text
+   * @throws Exception if an error occurs during encryption
+   */
+  private String encrypt(Cipher cipher, String plainText) throws Exception {
+    var legacy = format == Format.V1;
+    var iv = getRandomNonce(IV_LENGTH_BYTE);
+    var salt = legacy ? getRandomNonce(SALT_LENGTH_BYTE) : null;
+    var secretKey = legacy ? getSecretKey(salt) : derivedKey;
+    var plainBytes = plainText.getBytes(UTF_8);
+
+    initCipher(cipher, Cipher.ENCRYPT_MODE, secretKey, iv);
+    var offset = iv.length + (legacy ? salt.length : 0);
+    var output = new byte[offset + cipher.getOutputSize(plainBytes.length)];
+    System.arraycopy(iv, 0, output, 0, iv.length);
+    if (legacy) System.arraycopy(salt, 0, output, iv.length, salt.length);
+    cipher.doFinal(plainBytes, 0, plainBytes.length, output, offset);
+
+    var encoded = Base64.getEncoder().encodeToString(output);
+    return legacy ? encoded : V2_PREFIX + encoded;
+  }
+
   /**
    * Decrypts the specified cipher text using AES decryption.
    *
@@ -178,37 +338,170 @@ public class AesEncryptionService implements EncryptionService {
    * @throws DecryptionException if an error occurs during decryption
    */
   public String decrypt(String cipherText) throws DecryptionException {
-    MDC.put("cipher_text", cipherText);
-    log.debug("Trying to decrypt cipher message");
+    if (log.isDebugEnabled()) {
+      MDC.put("cipher_text", cipherText);
+      log.debug("Trying to decrypt cipher message");
+    }
 
     try {
-      var decodedCipherByte = Base64.getDecoder().decode(cipherText.getBytes(UTF_8));
-      var byteBuffer = ByteBuffer.wrap(decodedCipherByte);
+      var decrypted = CIPHERS.execute(cipher -> decrypt(cipher, cipherText));
 
-      var iv = new byte[IV_LENGTH_BYTE];
-      byteBuffer.get(iv);
+      if (log.isDebugEnabled()) {
+        MDC.put("plain_text", decrypted);
+        log.debug("Decrypted cipher message");
+      }
 
-      var salt = new byte[SALT_LENGTH_BYTE];
-      byteBuffer.get(salt);
+      return decrypted;
+    } catch (Exception e) {
+      throw new DecryptionException(e.getMessage());
+    } finally {
+      MDC.clear();
+    }
+  }
 
-      var encryptedByte = new byte[byteBuffer.remaining()];
-      byteBuffer.get(encryptedByte);
+  /**
+   * Encrypts several plain texts in one call. Null values are returned as null.
+   *
+   * @param plainTexts the plain texts to encrypt
+   * @return the encrypted texts, in the same order
+   * @throws EncryptionException if an error occurs during encryption
+   */
+  public List<String> encryptAll(List<String> plainTexts) throws EncryptionException {
+    try {
+      var derivations =
+          format == Format.V1 ? (int) plainTexts.stream().filter(Objects::nonNull).count() : 0;
+      return transformAll(plainTexts, derivations, this::encrypt);
+    } catch (Exception e) {
+      throw new EncryptionException(getMessage(e));
+    }
+  }
 
-      var secretKey = getSecretKey(secret, salt);
-      var cipher = initCipher(Cipher.DECRYPT_MODE, secretKey, iv);
+  /**
+   * Decrypts several cipher texts in one call. Null values are returned as null.
+   *
+   * @param cipherTexts the cipher texts to decrypt
+   * @return the decrypted plain texts, in the same order
+   * @throws DecryptionException if an error occurs during decryption
+   */
+  public List<String> decryptAll(List<String> cipherTexts) throws DecryptionException {
+    try {
+      var derivations = (int) cipherTexts.stream().filter(this::requiresKeyDerivation).count();
+      return transformAll(cipherTexts, derivations, this::decrypt);
+    } catch (Exception e) {
+      throw new DecryptionException(getMessage(e));
+    }
+  }
 
-      var decryptedMessageByte = cipher.doFinal(encryptedByte);
+  /**
+   * Applies a cipher operation to every non-null value. AES-GCM with an already derived key takes
+   * microseconds, so values are processed inline with a single borrowed cipher. Only when at least
+   * {@link #PARALLEL_DERIVATION_THRESHOLD} values need their own PBKDF2 key derivation is the work
+   * spread over the common fork-join pool.
+   *
+   * @param values the values to transform
+   * @param derivations the number of values that need a key derivation
+   * @param operation the cipher operation
+   * @return the transformed values, in the same order
+   * @throws Exception if any operation fails
+   */
+  private List<String> transformAll(List<String> values, int derivations, CipherOperation operation)
+      throws Exception {
+    var results = new String[values.size()];
+    if (derivations < PARALLEL_DERIVATION_THRESHOLD) {
+      CIPHERS.execute(
+          cipher -> {
+            for (var i = 0; i < results.length; i++) {
+              var value = values.get(i);
+              if (value != null) results[i] = operation.apply(cipher, value);
+            }
+            return results;
+          });
+    } else {
+      IntStream.range(0, results.length)
+          .parallel()
+          .forEach(
+              i -> {
+                var value = values.get(i);
+                if (value == null) return;
+                try {
+                  results[i] = CIPHERS.execute(cipher -> operation.apply(cipher, value));
+                } catch (Exception e) {
+                  throw new CompletionException(e);
+                }
+              });
+    }
 
-      var decrypted = new String(decryptedMessageByte, UTF_8);
+    if (log.isDebugEnabled()) {
+      MDC.put("count", String.valueOf(results.length));
+      MDC.put("derivations", String.valueOf(derivations));
+      log.debug("Transformed a batch of values");
+      MDC.clear();
+    }
 
-      MDC.put("plain_text", decrypted);
-      log.debug("Decrypted cipher message");
+    return Arrays.asList(results);
+  }
 
-      return decrypted;
+  /**
+   * Checks whether decrypting a cipher text requires deriving a key that is not cached yet.
+   *
+   * @param cipherText the cipher text, or null
+   * @return true if a PBKDF2 key derivation is needed, false otherwise
+   */
+  private boolean requiresKeyDerivation(String cipherText) {
+    if (!isLegacy(cipherText)) return false;
+
+    try {
+      var header = Base64.getDecoder().decode(cipherText.substring(0, LEGACY_HEADER_LENGTH));
+      var salt = Arrays.copyOfRange(header, IV_LENGTH_BYTE, IV_LENGTH_BYTE + SALT_LENGTH_BYTE);
+      return !legacyKeys.containsKey(HexEncoder.encode(salt));
     } catch (Exception e) {
-      throw new DecryptionException(e.getMessage());
-    } finally {
-      MDC.clear();
+      return false;
     }
   }
+
+  /**
+   * Returns the message of the root failure of a possibly parallel operation.
+   *
+   * @param e the exception
+   * @return the exception message
+   */
+  private static String getMessage(Exception e) {
+    return e instanceof CompletionException && e.getCause() != null
+        ? e.getCause().getMessage()
+        : e.getMessage();
+  }
+
+  /**
+   * Decrypts the specified cipher text with a borrowed cipher.
+   *
+   * @param cipher the pooled cipher to use
+   * @param cipherText the cipher text to decrypt
+   * @return the decrypted plain text
+   * @throws Exception if an error occurs during decryption
+   */
+  private String decrypt(Cipher cipher, String cipherText) throws Exception {
+    var legacy = isLegacy(cipherText);
+    var decodedCipherByte =
+        Base64.getDecoder().decode(legacy ? cipherText : cipherText.substring(V2_PREFIX.length()));
+
+    var iv = Arrays.copyOfRange(decodedCipherByte, 0, IV_LENGTH_BYTE);
+    var offset = IV_LENGTH_BYTE;
+    var secretKey = derivedKey;
+    if (legacy) {
+      var salt = Arrays.copyOfRange(decodedCipherByte, offset, offset + SALT_LENGTH_BYTE);
+      offset += SALT_LENGTH_BYTE;
+      secretKey = getLegacySecretKey(salt);
+    }
+
+    initCipher(cipher, Cipher.DECRYPT_MODE, secretKey, iv);
+    var decryptedMessageByte =
+        cipher.doFinal(decodedCipherByte, offset, decodedCipherByte.length - offset);
+    return new String(decryptedMessageByte, UTF_8);
+  }
+
+  /** An encryption or decryption step performed with a borrowed cipher. */
+  @FunctionalInterface
+  private interface CipherOperation {
+    String apply(Cipher cipher, String value) throws Exception;
+  }
 }
@@ -0,0 +1,91 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.utilities.crypto;
+
+import com.asc.common.utilities.functional.CheckedFunction;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+
+/**
+ * A bounded pool of stateful crypto primitives such as {@link javax.crypto.Cipher}, {@link
+ * java.security.MessageDigest} or {@link java.security.SecureRandom}.
+ *
+ * <p>Instances are handed out to a single caller at a time and returned after use, so they never
+ * have to be thread-safe. The pool never blocks: when it is empty a new instance is created, and
+ * when it is full a returned instance is dropped. Unlike a {@link ThreadLocal}, reuse does not
+ * depend on the caller running on the same thread, which matters for virtual threads that are
+ * created per task.
+ *
+ * @param <T> the type of the pooled primitive
+ */
+public class CryptoObjectPool<T> {
+  private static final int DEFAULT_CAPACITY = Runtime.getRuntime().availableProcessors() * 2;
+
+  private final BlockingQueue<T> idle;
+  private final Callable<T> factory;
+
+  /**
+   * Constructs a new pool sized for the number of available processors.
+   *
+   * @param factory creates a new primitive when the pool is empty
+   */
+  public CryptoObjectPool(Callable<T> factory) {
+    this(factory, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs a new pool with the specified capacity.
+   *
+   * @param factory creates a new primitive when the pool is empty
+   * @param capacity the maximum number of idle primitives kept by the pool
+   */
+  public CryptoObjectPool(Callable<T> factory, int capacity) {
+    this.factory = factory;
+    this.idle = new ArrayBlockingQueue<>(Math.max(1, capacity));
+  }
+
+  /**
+   * Borrows a primitive, applies the given action to it and returns it to the pool.
+   *
+   * <p>A primitive whose action failed is discarded, since its internal state is unknown.
+   *
+   * @param action the action to apply to the borrowed primitive
+   * @param <R> the type of the result
+   * @return the result of the action
+   * @throws Exception if the primitive could not be created or the action failed
+   */
+  public <R> R execute(CheckedFunction<T, R> action) throws Exception {
+    var instance = idle.poll();
+    if (instance == null) instance = factory.call();
+
+    var result = action.apply(instance);
+    idle.offer(instance);
+    return result;
+  }
+}
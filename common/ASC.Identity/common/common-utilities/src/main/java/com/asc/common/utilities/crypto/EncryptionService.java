@@ -27,6 +27,9 @@
 
 package com.asc.common.utilities.crypto;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /** The EncryptionService interface provides methods for encrypting and decrypting text. */
 public interface EncryptionService {
 
@@ -47,4 +50,30 @@ public interface EncryptionService {
    * @throws DecryptionException if an error occurs during decryption
    */
   String decrypt(String cipher) throws DecryptionException;
+
+  /**
+   * Encrypts several texts in one call. Null values are returned as null.
+   *
+   * @param texts the texts to be encrypted
+   * @return the encrypted cipher texts, in the same order
+   * @throws EncryptionException if an error occurs during encryption
+   */
+  default List<String> encryptAll(List<String> texts) throws EncryptionException {
+    var result = new ArrayList<String>(texts.size());
+    for (var text : texts) result.add(text != null ? encrypt(text) : null);
+    return result;
+  }
+
+  /**
+   * Decrypts several cipher texts in one call. Null values are returned as null.
+   *
+   * @param ciphers the cipher texts to be decrypted
+   * @return the decrypted texts, in the same order
+   * @throws DecryptionException if an error occurs during decryption
+   */
+  default List<String> decryptAll(List<String> ciphers) throws DecryptionException {
+    var result = new ArrayList<String>(ciphers.size());
+    for (var cipher : ciphers) result.add(cipher != null ? decrypt(cipher) : null);
+    return result;
+  }
 }
@@ -0,0 +1,56 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.utilities.crypto;
+
+import java.nio.charset.StandardCharsets;
+
+/** Encodes bytes as lowercase hexadecimal strings using a lookup table. */
+public final class HexEncoder {
+  private static final byte[] DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  private HexEncoder() {}
+
+  /**
+   * Encodes the given bytes as a lowercase hexadecimal string.
+   *
+   * <p>The only allocations are the intermediate buffer and the resulting string.
+   *
+   * @param bytes the bytes to encode
+   * @return the hexadecimal representation of the bytes
+   */
+  public static String encode(byte[] bytes) {
+    var hex = new byte[bytes.length * 2];
+    for (int i = 0, j = 0; i < bytes.length; i++) {
+      var b = bytes[i] & 0xff;
+      hex[j++] = DIGITS[b >>> 4];
+      hex[j++] = DIGITS[b & 0x0f];
+    }
+
+    return new String(hex, StandardCharsets.ISO_8859_1);
+  }
+}
@@ -0,0 +1,98 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.utilities.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Provides keyed hashing of secrets using the HMAC-SHA256 algorithm. The key is taken from the
+ * application secret, so a leaked hash cannot be brute-forced without it. Initialized MACs are
+ * borrowed from a {@link CryptoObjectPool} and results are encoded with {@link HexEncoder}.
+ */
+public class HmacSecretHashingService implements SecretHashingService {
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private final CryptoObjectPool<Mac> macs;
+
+  /**
+   * Constructs a new HmacSecretHashingService.
+   *
+   * @param key the key used to hash secrets
+   * @throws IllegalArgumentException if the key is empty
+   */
+  public HmacSecretHashingService(String key) {
+    if (key == null || key.isEmpty())
+      throw new IllegalArgumentException("Secret hashing key must not be empty");
+
+    var keySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    this.macs =
+        new CryptoObjectPool<>(
+            () -> {
+              var mac = Mac.getInstance(ALGORITHM);
+              mac.init(keySpec);
+              return mac;
+            });
+  }
+
+  /**
+   * Hashes the given secret using the HMAC-SHA256 algorithm.
+   *
+   * @param secret the plain secret
+   * @return the keyed hash as a hexadecimal string, or null if the secret is null
+   * @throws IllegalStateException if the secret could not be hashed
+   */
+  public String hash(String secret) {
+    if (secret == null) return null;
+
+    try {
+      var bytes = secret.getBytes(StandardCharsets.UTF_8);
+      return HexEncoder.encode(macs.execute(mac -> mac.doFinal(bytes)));
+    } catch (Exception e) {
+      throw new IllegalStateException("Could not hash secret", e);
+    }
+  }
+
+  /**
+   * Verifies that the given secret matches the given keyed hash. The comparison takes the same time
+   * wherever the hashes differ.
+   *
+   * @param secret the plain secret
+   * @param hashedSecret the keyed hash to compare against
+   * @return true if the secret matches the hashed secret, false otherwise
+   */
+  public boolean verify(String secret, String hashedSecret) {
+    if (secret == null || hashedSecret == null) return false;
+
+    return MessageDigest.isEqual(
+        hash(secret).getBytes(StandardCharsets.US_ASCII),
+        hashedSecret.getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -30,9 +30,14 @@ package com.asc.common.utilities.crypto;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 
-/** Provides hashing functionality using the SHA-256 algorithm. */
+/**
+ * Provides hashing functionality using the SHA-256 algorithm. Digests are borrowed from a shared
+ * {@link CryptoObjectPool} and encoded with {@link HexEncoder}.
+ */
 public class SHA256HashingService implements HashingService {
   private static final String ALGORITHM = "SHA-256";
+  private static final CryptoObjectPool<MessageDigest> DIGESTS =
+      new CryptoObjectPool<>(() -> MessageDigest.getInstance(ALGORITHM));
 
   /**
    * Hashes the given data using the SHA-256 algorithm.
@@ -41,10 +46,11 @@ public class SHA256HashingService implements HashingService {
    * @return the hashed data as a hexadecimal string, or null if an error occurs
    */
   public String hash(String data) {
+    if (data == null) return null;
+
     try {
-      var digest = MessageDigest.getInstance(ALGORITHM);
-      var hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-      return bytesToHex(hash);
+      var bytes = data.getBytes(StandardCharsets.UTF_8);
+      return HexEncoder.encode(DIGESTS.execute(digest -> digest.digest(bytes)));
     } catch (Exception e) {
       return null;
     }
@@ -61,20 +67,4 @@ public class SHA256HashingService implements HashingService {
     var newHash = hash(data);
     return newHash.equals(hashedData);
   }
-
-  /**
-   * Converts a byte array to a hexadecimal string.
-   *
-   * @param bytes the byte array to convert
-   * @return the hexadecimal string representation of the byte array
-   */
-  private String bytesToHex(byte[] bytes) {
-    var hexString = new StringBuilder();
-    for (byte b : bytes) {
-      var hex = Integer.toHexString(0xff & b);
-      if (hex.length() == 1) hexString.append('0');
-      hexString.append(hex);
-    }
-    return hexString.toString();
-  }
 }
@@ -0,0 +1,141 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.common.utilities.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AesEncryptionServiceTest {
+  private static final String SECRET = "secret";
+
+  private AesEncryptionService v1;
+  private AesEncryptionService v2;
+
+  @BeforeEach
+  void setUp() {
+    v1 = new AesEncryptionService(SECRET, AesEncryptionService.Format.V1);
+    v2 = new AesEncryptionService(SECRET, AesEncryptionService.Format.V2);
+  }
+
+  @Test
+  void testV2InstanceDecryptsV1CipherText() {
+    var cipherText = v1.encrypt("plain");
+
+    assertTrue(v2.isLegacy(cipherText));
+    assertEquals("plain", v2.decrypt(cipherText));
+  }
+
+  @Test
+  void testV1InstanceDecryptsV2CipherText() {
+    var cipherText = v2.encrypt("plain");
+
+    assertTrue(cipherText.startsWith("v2:"));
+    assertFalse(v1.isLegacy(cipherText));
+    assertEquals("plain", v1.decrypt(cipherText));
+  }
+
+  @Test
+  void testLegacyKeyCacheReturnsSamePlainTextOnHitAndMiss() throws Exception {
+    var service = new AesEncryptionService(SECRET, AesEncryptionService.Format.V1, 1);
+    var first = service.encrypt("first");
+    var second = service.encrypt("second");
+    var legacyKeys = getLegacyKeys(service);
+
+    assertTrue(legacyKeys.isEmpty());
+    assertEquals("first", service.decrypt(first));
+    assertEquals(1, legacyKeys.size());
+    var cached = legacyKeys.values().iterator().next();
+    assertEquals("first", service.decrypt(first));
+    assertEquals(cached, legacyKeys.values().iterator().next());
+
+    assertEquals("second", service.decrypt(second));
+    assertEquals(1, legacyKeys.size());
+    assertNotEquals(cached, legacyKeys.values().iterator().next());
+    assertEquals("first", service.decrypt(first));
+  }
+
+  @Test
+  void testEncryptAllAndDecryptAllInline() {
+    var plainTexts = Arrays.asList("a", null, "b", "c", null);
+
+    var cipherTexts = v2.encryptAll(plainTexts);
+
+    assertEquals(plainTexts.size(), cipherTexts.size());
+    assertNull(cipherTexts.get(1));
+    assertNull(cipherTexts.get(4));
+    assertTrue(cipherTexts.get(0).startsWith("v2:"));
+    assertEquals(plainTexts, v2.decryptAll(cipherTexts));
+    assertEquals(plainTexts, v1.decryptAll(cipherTexts));
+  }
+
+  @Test
+  void testEncryptAllAndDecryptAllInParallel() throws Exception {
+    var plainTexts = Arrays.asList(null, "a", "b", null, "c", "d");
+
+    var cipherTexts = v1.encryptAll(plainTexts);
+
+    assertEquals(plainTexts.size(), cipherTexts.size());
+    assertNull(cipherTexts.get(0));
+    assertNull(cipherTexts.get(3));
+    assertTrue(v1.isLegacy(cipherTexts.get(1)));
+    assertTrue(getLegacyKeys(v2).isEmpty());
+    assertEquals(plainTexts, v2.decryptAll(cipherTexts));
+    assertEquals(4, getLegacyKeys(v2).size());
+    assertEquals(plainTexts, v2.decryptAll(cipherTexts));
+  }
+
+  @Test
+  void testDecryptAllWithMixedFormats() {
+    var cipherTexts =
+        Arrays.asList(v1.encrypt("a"), null, v2.encrypt("b"), v1.encrypt("c"), v2.encrypt("d"));
+
+    assertEquals(Arrays.asList("a", null, "b", "c", "d"), v2.decryptAll(cipherTexts));
+  }
+
+  /**
+   * Reads the legacy key cache of a service.
+   *
+   * @param service the encryption service
+   * @return the cache of keys derived for legacy salts
+   * @throws Exception if the field could not be read
+   */
+  @SuppressWarnings("unchecked")
+  private Map<String, ?> getLegacyKeys(AesEncryptionService service) throws Exception {
+    var field = AesEncryptionService.class.getDeclaredField("legacyKeys");
+    field.setAccessible(true);
+    return (Map<String, ?>) field.get(service);
+  }
+}
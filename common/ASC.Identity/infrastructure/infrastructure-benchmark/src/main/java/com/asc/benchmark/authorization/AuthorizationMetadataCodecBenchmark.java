@@ -0,0 +1,147 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.benchmark.authorization;
+
+import com.asc.authorization.application.mapper.AuthorizationMetadataCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.oauth2.server.authorization.jackson2.OAuth2AuthorizationServerJackson2Module;
+
+/**
+ * Compares the polymorphic JSON encoding of access token metadata with {@link
+ * AuthorizationMetadataCodec}. The encoded sizes of both formats are printed during setup.
+ *
+ * <p>Run with {@code mvn -pl infrastructure/infrastructure-benchmark -am package exec:java
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args="AuthorizationMetadataCodecBenchmark -prof
+ * gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationMetadataCodecBenchmark {
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private AuthorizationMetadataCodec jsonCodec;
+  private AuthorizationMetadataCodec compactCodec;
+  private Map<String, Object> metadata;
+  private String json;
+  private String compact;
+
+  /** Builds representative access token metadata and encodes it in both formats. */
+  @Setup
+  public void setup() {
+    var classLoader = AuthorizationMetadataCodecBenchmark.class.getClassLoader();
+    objectMapper.registerModules(SecurityJackson2Modules.getModules(classLoader));
+    objectMapper.registerModule(new OAuth2AuthorizationServerJackson2Module());
+    objectMapper.registerModule(new JavaTimeModule());
+    objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    jsonCodec = new AuthorizationMetadataCodec(this::writeJson, this::parseJson, false);
+    compactCodec = new AuthorizationMetadataCodec(this::writeJson, this::parseJson, true);
+
+    var issuedAt = Instant.ofEpochSecond(1718000000);
+    var claims = new LinkedHashMap<String, Object>();
+    claims.put("sub", "66faa6e4-f133-11ea-b126-00ffeec8b4ef");
+    claims.put("aud", List.of("0b8b1f2e-9a3c-4a6b-8a7e-1c2d3e4f5a6b"));
+    claims.put("nbf", issuedAt);
+    claims.put(
+        "scope",
+        Collections.unmodifiableSet(
+            new LinkedHashSet<>(List.of("files:read", "files:write", "accounts:read"))));
+    claims.put("iss", "https://example.onlyoffice.com/oauth2");
+    claims.put("exp", issuedAt.plusSeconds(3600));
+    claims.put("iat", issuedAt);
+    claims.put("jti", "5f1c2d3e-4a5b-6c7d-8e9f-0a1b2c3d4e5f");
+
+    metadata = new LinkedHashMap<>();
+    metadata.put("metadata.token.claims", Collections.unmodifiableMap(claims));
+    metadata.put("metadata.token.invalidated", false);
+
+    json = jsonCodec.encode(metadata);
+    compact = compactCodec.encode(metadata);
+    System.out.printf("json: %d chars, compact: %d chars%n", json.length(), compact.length());
+  }
+
+  @Benchmark
+  public String encodeJson() {
+    return jsonCodec.encode(metadata);
+  }
+
+  @Benchmark
+  public String encodeCompact() {
+    return compactCodec.encode(metadata);
+  }
+
+  @Benchmark
+  public Map<String, Object> decodeJson() {
+    return jsonCodec.decode(json);
+  }
+
+  @Benchmark
+  public Map<String, Object> decodeCompact() {
+    return compactCodec.decode(compact);
+  }
+
+  private String writeJson(Map<String, Object> data) {
+    try {
+      return objectMapper.writeValueAsString(data);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private Map<String, Object> parseJson(String data) {
+    try {
+      return objectMapper.readValue(data, new TypeReference<Map<String, Object>>() {});
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
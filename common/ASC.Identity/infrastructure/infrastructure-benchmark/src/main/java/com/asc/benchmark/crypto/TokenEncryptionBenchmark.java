@@ -0,0 +1,119 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.benchmark.crypto;
+
+import com.asc.common.utilities.crypto.AesEncryptionService;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the token encryption latency added to every authorization save and lookup: the former
+ * fan-out of one virtual thread per token against the inline batch API of {@link
+ * AesEncryptionService}.
+ *
+ * <p>Run with {@code mvn -pl infrastructure/infrastructure-benchmark -am package exec:java
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args="TokenEncryptionBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TokenEncryptionBenchmark {
+  private static final String ACCESS_TOKEN =
+      "eyJraWQiOiJhc2MiLCJhbGciOiJFUzI1NiJ9.eyJzdWIiOiI2NmZhYTZlNC1mMTMzLTExZWEtYjEyNi0wMGZmZWVj"
+          + "OGI0ZWYiLCJhdWQiOiIwYjhiMWYyZS05YTNjIiwic2NvcGUiOlsiZmlsZXM6cmVhZCJdfQ.c2lnbmF0dXJl";
+  private static final String REFRESH_TOKEN =
+      "b1bR0d9yXzN3mQ8pLkVtWc2sFhJ6aE4uGiOyTxKvZrPqMnDlCwSgHfBjUeYo7I5A0s1d2f3g4h5j6k7l8";
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private AesEncryptionService encryptionService;
+  private List<String> encryptedTokens;
+
+  /** Creates the service and the encrypted tokens read by the lookup benchmarks. */
+  @Setup
+  public void setup() {
+    encryptionService =
+        new AesEncryptionService("benchmark-secret", AesEncryptionService.Format.V2);
+    encryptedTokens = encryptionService.encryptAll(Arrays.asList(ACCESS_TOKEN, REFRESH_TOKEN));
+  }
+
+  /** Stops the virtual thread executor. */
+  @TearDown
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Benchmark
+  public List<String> saveFanOut() throws Exception {
+    var access =
+        CompletableFuture.supplyAsync(() -> encryptionService.encrypt(ACCESS_TOKEN), executor);
+    var refresh =
+        CompletableFuture.supplyAsync(() -> encryptionService.encrypt(REFRESH_TOKEN), executor);
+    return List.of(access.get(2, TimeUnit.SECONDS), refresh.get(2, TimeUnit.SECONDS));
+  }
+
+  @Benchmark
+  public List<String> saveBatch() {
+    return encryptionService.encryptAll(Arrays.asList(ACCESS_TOKEN, REFRESH_TOKEN));
+  }
+
+  @Benchmark
+  public List<String> lookupFanOut() throws Exception {
+    var access =
+        CompletableFuture.supplyAsync(
+            () -> encryptionService.decrypt(encryptedTokens.get(0)), executor);
+    var refresh =
+        CompletableFuture.supplyAsync(
+            () -> encryptionService.decrypt(encryptedTokens.get(1)), executor);
+    return List.of(access.get(2, TimeUnit.SECONDS), refresh.get(2, TimeUnit.SECONDS));
+  }
+
+  @Benchmark
+  public List<String> lookupBatch() {
+    return encryptionService.decryptAll(encryptedTokens);
+  }
+}
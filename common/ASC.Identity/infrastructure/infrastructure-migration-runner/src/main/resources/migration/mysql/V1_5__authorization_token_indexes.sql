@@ -0,0 +1,17 @@
+-- Normalize token hashes so they fit fixed-width SHA-256 hex columns
+UPDATE identity_authorizations
+SET access_token_hash = NULL
+WHERE access_token_hash IS NOT NULL AND CHAR_LENGTH(access_token_hash) <> 64;
+
+UPDATE identity_authorizations
+SET refresh_token_hash = NULL
+WHERE refresh_token_hash IS NOT NULL AND CHAR_LENGTH(refresh_token_hash) <> 64;
+
+-- Narrow token hash columns and index every column used for token lookups
+ALTER TABLE identity_authorizations
+    MODIFY access_token_hash char(64),
+    MODIFY refresh_token_hash char(64),
+    ADD INDEX idx_identity_authorizations_access_token_hash (access_token_hash),
+    ADD INDEX idx_identity_authorizations_refresh_token_hash (refresh_token_hash),
+    ADD INDEX idx_identity_authorizations_state (state),
+    ADD INDEX idx_identity_authorizations_authorization_code_value (authorization_code_value(128));
@@ -0,0 +1,20 @@
+-- Add fixed-width hashes for authorization codes and state
+ALTER TABLE identity_authorizations
+    ADD COLUMN state_hash char(64) AFTER state,
+    ADD COLUMN authorization_code_hash char(64) AFTER authorization_code_value;
+
+-- Backfill hashes for existing authorizations
+UPDATE identity_authorizations
+SET state_hash = SHA2(state, 256)
+WHERE state IS NOT NULL AND state_hash IS NULL;
+
+UPDATE identity_authorizations
+SET authorization_code_hash = SHA2(authorization_code_value, 256)
+WHERE authorization_code_value IS NOT NULL AND authorization_code_hash IS NULL;
+
+-- Replace raw value indexes with hash indexes
+ALTER TABLE identity_authorizations
+    DROP INDEX idx_identity_authorizations_state,
+    DROP INDEX idx_identity_authorizations_authorization_code_value,
+    ADD INDEX idx_identity_authorizations_state_hash (state_hash),
+    ADD INDEX idx_identity_authorizations_authorization_code_hash (authorization_code_hash);
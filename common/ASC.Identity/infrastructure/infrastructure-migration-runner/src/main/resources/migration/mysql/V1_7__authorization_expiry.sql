@@ -0,0 +1,15 @@
+-- Track when an authorization can no longer be used: the latest expiry of its tokens, or a day
+-- after its last modification for authorizations without tokens (e.g. pending authorize requests)
+ALTER TABLE identity_authorizations
+    ADD COLUMN expires_at datetime(6) GENERATED ALWAYS AS (
+        GREATEST(
+            COALESCE(authorization_code_expires_at, '1970-01-01 00:00:01'),
+            COALESCE(access_token_expires_at, '1970-01-01 00:00:01'),
+            COALESCE(refresh_token_expires_at, '1970-01-01 00:00:01'),
+            COALESCE(modified_at + INTERVAL 1 DAY, '1970-01-01 00:00:01'))
+    ) STORED,
+    ADD INDEX idx_identity_authorizations_expires_at (expires_at);
+
+-- Invalidated authorizations and consents are now reaped in chunks by the authorization service
+DROP EVENT IF EXISTS identity_delete_invalidated_consents;
+DROP EVENT IF EXISTS identity_delete_invalidated_authorization;
@@ -0,0 +1,5 @@
+-- Keep a keyed hash (HMAC-SHA256) of the plain client secret next to its ciphertext, so clients are
+-- authenticated without decrypting their secret. Existing clients keep a null hash until their
+-- secret is regenerated and are verified against the decrypted secret meanwhile
+ALTER TABLE identity_clients
+    ADD COLUMN client_secret_hash varchar(64) NULL AFTER client_secret;
@@ -29,6 +29,8 @@ package com.asc.registration.container;
 
 import com.asc.common.utilities.crypto.AesEncryptionService;
 import com.asc.common.utilities.crypto.EncryptionService;
+import com.asc.common.utilities.crypto.HmacSecretHashingService;
+import com.asc.common.utilities.crypto.SecretHashingService;
 import com.asc.registration.core.domain.ClientDomainService;
 import com.asc.registration.core.domain.CoreClientDomainService;
 import org.springframework.beans.factory.annotation.Value;
@@ -56,11 +58,30 @@ public class BeanConfiguration {
    * already been created, this method will not be called.
    *
    * @param secret The application secret.
+   * @param format The ciphertext format to write, v1 unless configured otherwise. Both formats are
+   *     always readable; switch to v2 once every node of the fleet is able to read it.
    * @return A new instance of AesEncryptionService.
    */
   @Bean
   @ConditionalOnMissingBean
-  public EncryptionService encryptionService(@Value("${application.secret}") String secret) {
-    return new AesEncryptionService(secret);
+  public EncryptionService encryptionService(
+      @Value("${application.secret}") String secret,
+      @Value("${application.cipher-format:v1}") String format) {
+    return new AesEncryptionService(secret, AesEncryptionService.Format.of(format));
+  }
+
+  /**
+   * This method creates a SecretHashingService bean. It uses the HmacSecretHashingService
+   * implementation keyed with the application secret, so hashes written here can be verified by
+   * the authorization service. If a SecretHashingService bean has already been created, this method
+   * will not be called.
+   *
+   * @param secret The application secret.
+   * @return A new instance of HmacSecretHashingService.
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  public SecretHashingService secretHashingService(@Value("${application.secret}") String secret) {
+    return new HmacSecretHashingService(secret);
   }
 }
@@ -51,6 +51,7 @@ public class Client extends AggregateRoot<ClientId> {
   private static final String UTC = "UTC";
   private ClientId id;
   private ClientSecret secret;
+  private String secretHash;
   private final Set<AuthenticationMethod> authenticationMethods;
   private final Set<String> scopes;
   private ClientInfo clientInfo;
@@ -67,6 +68,7 @@ public class Client extends AggregateRoot<ClientId> {
     super.setId(builder.id);
     this.id = builder.id;
     this.secret = builder.secret;
+    this.secretHash = builder.secretHash;
     this.authenticationMethods =
         builder.authenticationMethods != null
             ? new HashSet<>(builder.authenticationMethods)
@@ -147,6 +149,7 @@ public class Client extends AggregateRoot<ClientId> {
     validateStatus();
     changeStatus(ClientStatus.INVALIDATED, modifiedBy);
     this.secret = new ClientSecret(UUID.randomUUID().toString());
+    this.secretHash = null;
     validate();
   }
 
@@ -159,10 +162,23 @@ public class Client extends AggregateRoot<ClientId> {
     validateStatus();
     validateStatusInvalidated();
     this.secret = new ClientSecret(UUID.randomUUID().toString());
+    this.secretHash = null;
     updateModificationInfo(modifiedBy);
     validate();
   }
 
+  /**
+   * Hashes the client's plain secret using a provided function. Must be called before the secret is
+   * encrypted.
+   *
+   * @param secretHasher a function that hashes the secret
+   */
+  public void hashSecret(Function<String, String> secretHasher) {
+    validateStatus();
+    validateStatusInvalidated();
+    this.secretHash = secretHasher.apply(this.secret.value());
+  }
+
   /**
    * Encrypts the client's secret using a provided function.
    *
@@ -401,6 +417,15 @@ public class Client extends AggregateRoot<ClientId> {
     return this.secret;
   }
 
+  /**
+   * Returns the keyed hash of the client secret.
+   *
+   * @return the hash of the client secret, or null if it has not been hashed
+   */
+  public String getSecretHash() {
+    return this.secretHash;
+  }
+
   /**
    * Returns the authentication methods.
    *
@@ -504,6 +529,7 @@ public class Client extends AggregateRoot<ClientId> {
   public static final class Builder {
     private ClientId id;
     private ClientSecret secret;
+    private String secretHash;
     private Set<AuthenticationMethod> authenticationMethods;
     private Set<String> scopes;
     private ClientInfo clientInfo;
@@ -539,6 +565,11 @@ public class Client extends AggregateRoot<ClientId> {
       return this;
     }
 
+    public Builder secretHash(String val) {
+      this.secretHash = val;
+      return this;
+    }
+
     public Builder authenticationMethods(Set<AuthenticationMethod> val) {
       this.authenticationMethods = val;
       return this;
@@ -128,6 +128,26 @@ class ClientTest {
     assertNotEquals(oldSecret, client.getSecret().value());
   }
 
+  @Test
+  void testHashSecret() {
+    client.initialize("creator@example.com");
+    String secret = client.getSecret().value();
+    client.hashSecret(s -> "hash:" + s);
+    client.encryptSecret(s -> "encrypted:" + s);
+
+    assertEquals("hash:" + secret, client.getSecretHash());
+    assertEquals("encrypted:" + secret, client.getSecret().value());
+  }
+
+  @Test
+  void testRegenerateSecretClearsSecretHash() {
+    client.initialize("creator@example.com");
+    client.hashSecret(s -> "hash:" + s);
+    client.regenerateSecret("modifier@example.com");
+
+    assertNull(client.getSecretHash());
+  }
+
   @Test
   void testAddScope() {
     client.initialize("creator@example.com");
@@ -31,6 +31,7 @@ import com.asc.common.core.domain.entity.Audit;
 import com.asc.common.core.domain.event.DomainEventPublisher;
 import com.asc.common.service.transfer.response.ClientResponse;
 import com.asc.common.utilities.crypto.EncryptionService;
+import com.asc.common.utilities.crypto.SecretHashingService;
 import com.asc.registration.core.domain.ClientDomainService;
 import com.asc.registration.core.domain.event.ClientEvent;
 import com.asc.registration.service.mapper.ClientDataMapper;
@@ -55,6 +56,7 @@ public class ClientCreateCommandHandler {
   private final ClientDomainService clientDomainService;
   private final DomainEventPublisher<ClientEvent> messagePublisher;
   private final EncryptionService encryptionService;
+  private final SecretHashingService secretHashingService;
 
   /**
    * Creates a new client based on the provided command and audit information.
@@ -73,6 +75,7 @@ public class ClientCreateCommandHandler {
 
     var event = clientDomainService.createClient(audit, client);
     var clientSecret = client.getSecret().value();
+    client.hashSecret(secretHashingService::hash);
     client.encryptSecret(encryptionService::encrypt);
 
     clientCommandRepository.saveClient(client);
@@ -34,6 +34,7 @@ import com.asc.common.core.domain.value.TenantId;
 import com.asc.common.core.domain.value.enums.AuthenticationMethod;
 import com.asc.common.service.transfer.response.ClientResponse;
 import com.asc.common.utilities.crypto.EncryptionService;
+import com.asc.common.utilities.crypto.SecretHashingService;
 import com.asc.registration.core.domain.ClientDomainService;
 import com.asc.registration.core.domain.event.ClientEvent;
 import com.asc.registration.core.domain.exception.ClientDomainException;
@@ -73,6 +74,7 @@ public class ClientUpdateCommandHandler {
   private final ClientQueryRepository clientQueryRepository;
   private final DomainEventPublisher<ClientEvent> messagePublisher;
   private final EncryptionService encryptionService;
+  private final SecretHashingService secretHashingService;
 
   /**
    * Regenerates the client secret.
@@ -105,6 +107,7 @@ public class ClientUpdateCommandHandler {
 
     var event = clientDomainService.regenerateClientSecret(audit, client);
     var clientSecret = client.getSecret().value();
+    client.hashSecret(secretHashingService::hash);
     client.encryptSecret(encryptionService::encrypt);
 
     MDC.put("client_secret", client.getSecret().value());
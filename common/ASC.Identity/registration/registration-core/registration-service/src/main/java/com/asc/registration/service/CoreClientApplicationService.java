@@ -140,7 +140,12 @@ public class CoreClientApplicationService implements ClientApplicationService {
    * @param command the command containing client ID and tenant ID.
    * @return the client secret response containing the new client secret.
    */
-  @CacheEvict(value = "clients", key = "#command.clientId")
+  @Caching(
+      evict = {
+        @CacheEvict(value = "clients", key = "#command.clientId"),
+        @CacheEvict(value = "registeredClients", key = "#command.clientId"),
+        @CacheEvict(value = "clientAccess", key = "#command.clientId")
+      })
   public ClientSecretResponse regenerateSecret(
       Audit audit, RegenerateTenantClientSecretCommand command) {
     return clientUpdateCommandHandler.regenerateSecret(audit, command);
@@ -155,6 +160,8 @@ public class CoreClientApplicationService implements ClientApplicationService {
   @Caching(
       evict = {
         @CacheEvict(value = "clients", key = "#command.clientId"),
+        @CacheEvict(value = "registeredClients", key = "#command.clientId"),
+        @CacheEvict(value = "clientAccess", key = "#command.clientId"),
         @CacheEvict(value = "clientsInfo", key = "#command.clientId")
       })
   public void changeActivation(Audit audit, ChangeTenantClientActivationCommand command) {
@@ -170,6 +177,8 @@ public class CoreClientApplicationService implements ClientApplicationService {
   @Caching(
       evict = {
         @CacheEvict(value = "clients", key = "#command.clientId"),
+        @CacheEvict(value = "registeredClients", key = "#command.clientId"),
+        @CacheEvict(value = "clientAccess", key = "#command.clientId"),
         @CacheEvict(value = "clientsInfo", key = "#command.clientId")
       })
   public void changeVisibility(Audit audit, ChangeTenantClientVisibilityCommand command) {
@@ -186,6 +195,8 @@ public class CoreClientApplicationService implements ClientApplicationService {
   @Caching(
       evict = {
         @CacheEvict(value = "clients", key = "#command.clientId"),
+        @CacheEvict(value = "registeredClients", key = "#command.clientId"),
+        @CacheEvict(value = "clientAccess", key = "#command.clientId"),
         @CacheEvict(value = "clientsInfo", key = "#command.clientId")
       })
   public ClientResponse updateClient(Audit audit, UpdateTenantClientCommand command) {
@@ -201,6 +212,8 @@ public class CoreClientApplicationService implements ClientApplicationService {
   @Caching(
       evict = {
         @CacheEvict(value = "clients", key = "#command.clientId"),
+        @CacheEvict(value = "registeredClients", key = "#command.clientId"),
+        @CacheEvict(value = "clientAccess", key = "#command.clientId"),
         @CacheEvict(value = "clientsInfo", key = "#command.clientId")
       })
   public void deleteClient(Audit audit, DeleteTenantClientCommand command) {
@@ -129,6 +129,7 @@ public class ClientDataMapper {
         .isPublic(client.getVisibility().equals(ClientVisibility.PUBLIC))
         .enabled(client.getStatus().equals(ClientStatus.ENABLED))
         .invalidated(client.getStatus().equals(ClientStatus.INVALIDATED))
+        .version(client.getVersion())
         .build();
   }
 
@@ -42,6 +42,7 @@ import com.asc.common.core.domain.value.enums.AuthenticationMethod;
 import com.asc.common.core.domain.value.enums.ClientVisibility;
 import com.asc.common.service.transfer.response.ClientResponse;
 import com.asc.common.utilities.crypto.EncryptionService;
+import com.asc.common.utilities.crypto.SecretHashingService;
 import com.asc.registration.core.domain.ClientDomainService;
 import com.asc.registration.core.domain.entity.Client;
 import com.asc.registration.core.domain.event.ClientCreatedEvent;
@@ -67,6 +68,7 @@ public class ClientCreateCommandHandlerTest {
   @InjectMocks private ClientCreateCommandHandler clientCreateCommandHandler;
   @Mock private ClientDomainService clientDomainService;
   @Mock private EncryptionService encryptionService;
+  @Mock private SecretHashingService secretHashingService;
   @Mock private ClientCommandRepository clientCommandRepository;
   @Mock private DomainEventPublisher<ClientEvent> messagePublisher;
   @Mock private ClientDataMapper clientDataMapper;
@@ -136,12 +138,14 @@ public class ClientCreateCommandHandlerTest {
     when(clientDomainService.createClient(any(Audit.class), any(Client.class)))
         .thenReturn(new ClientCreatedEvent(audit, client, ZonedDateTime.now()));
     when(clientDataMapper.toClientResponse(any(Client.class))).thenReturn(clientResponse);
+    when(secretHashingService.hash(anyString())).thenReturn("secretHash");
     when(encryptionService.encrypt(anyString())).thenReturn("encryptedSecret");
 
     var response = clientCreateCommandHandler.createClient(audit, command);
 
     verify(clientDataMapper, times(1)).toDomain(any(CreateTenantClientCommand.class));
     verify(clientDomainService, times(1)).createClient(any(Audit.class), any(Client.class));
+    verify(secretHashingService, times(1)).hash(anyString());
     verify(encryptionService, times(1)).encrypt(anyString());
     verify(clientCommandRepository, times(1)).saveClient(any(Client.class));
     verify(messagePublisher, times(1)).publish(any(ClientEvent.class));
@@ -41,6 +41,7 @@ import com.asc.common.core.domain.value.enums.AuditCode;
 import com.asc.common.core.domain.value.enums.AuthenticationMethod;
 import com.asc.common.service.transfer.response.ClientResponse;
 import com.asc.common.utilities.crypto.EncryptionService;
+import com.asc.common.utilities.crypto.SecretHashingService;
 import com.asc.registration.core.domain.ClientDomainService;
 import com.asc.registration.core.domain.entity.Client;
 import com.asc.registration.core.domain.event.ClientDeletedEvent;
@@ -72,6 +73,7 @@ public class ClientUpdateCommandHandlerTest {
   @InjectMocks private ClientUpdateCommandHandler clientUpdateCommandHandler;
   @Mock private ClientDomainService clientDomainService;
   @Mock private EncryptionService encryptionService;
+  @Mock private SecretHashingService secretHashingService;
   @Mock private ClientQueryRepository clientQueryRepository;
   @Mock private ConsentCommandRepository consentCommandRepository;
   @Mock private ClientCommandRepository clientCommandRepository;
@@ -145,6 +147,7 @@ public class ClientUpdateCommandHandlerTest {
     when(clientDomainService.regenerateClientSecret(any(Audit.class), any(Client.class)))
         .thenReturn(clientUpdatedEvent);
     when(clientCommandRepository.updateClient(any(Client.class))).thenReturn(client);
+    when(secretHashingService.hash(anyString())).thenReturn("secretHash");
     when(encryptionService.encrypt(anyString())).thenReturn("encryptedSecret");
     when(clientDataMapper.toClientSecret(any(Client.class))).thenReturn(clientSecretResponse);
 
@@ -154,6 +157,7 @@ public class ClientUpdateCommandHandlerTest {
         .findByClientIdAndTenantId(any(ClientId.class), any(TenantId.class));
     verify(clientDomainService, times(1))
         .regenerateClientSecret(any(Audit.class), any(Client.class));
+    verify(secretHashingService, times(1)).hash(anyString());
     verify(encryptionService, times(1)).encrypt(anyString());
     verify(clientCommandRepository, times(1)).updateClient(any(Client.class));
     verify(messagePublisher, times(1)).publish(any(ClientEvent.class));
@@ -62,6 +62,7 @@ public class ClientDataAccessMapper {
         .name(client.getClientInfo().name())
         .description(client.getClientInfo().description())
         .clientSecret(client.getSecret().value())
+        .clientSecretHash(client.getSecretHash())
         .logo(client.getClientInfo().logo())
         .authenticationMethods(client.getAuthenticationMethods())
         .tenantId(client.getClientTenantInfo().tenantId().getValue())
@@ -102,6 +103,7 @@ public class ClientDataAccessMapper {
     return Client.Builder.builder()
         .id(new ClientId(UUID.fromString(entity.getClientId())))
         .secret(new ClientSecret(entity.getClientSecret()))
+        .secretHash(entity.getClientSecretHash())
         .authenticationMethods(entity.getAuthenticationMethods())
         .scopes(entity.getScopes().stream().map(ScopeEntity::getName).collect(Collectors.toSet()))
         .clientInfo(new ClientInfo(entity.getName(), entity.getDescription(), entity.getLogo()))
@@ -153,6 +155,7 @@ public class ClientDataAccessMapper {
         origin.getClientSecret() != null
             ? origin.getClientSecret()
             : destination.getClientSecret());
+    destination.setClientSecretHash(origin.getClientSecretHash());
     destination.setLogo(origin.getLogo() != null ? origin.getLogo() : destination.getLogo());
     destination.setAuthenticationMethods(
         origin.getAuthenticationMethods() != null
@@ -29,21 +29,30 @@ package com.asc.registration.data.consent.adapter;
 
 import com.asc.common.core.domain.value.ClientId;
 import com.asc.common.data.consent.repository.JpaConsentRepository;
+import com.asc.common.service.ports.output.repository.TokenRevocationRepository;
 import com.asc.registration.service.ports.output.repository.ConsentCommandRepository;
+import java.time.Instant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Adapter class for handling consent command operations. Implements the {@link
  * ConsentCommandRepository} interface and provides the necessary logic for interacting with the JPA
  * repository to manage consent state.
+ *
+ * <p>Since revoked authorizations are deleted rather than marked, every revocation is also recorded
+ * in the {@link TokenRevocationRepository} once the deleting transaction commits, so caches and
+ * self-contained tokens can no longer be used.
  */
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class ConsentCommandRepositoryAdapter implements ConsentCommandRepository {
   private final JpaConsentRepository jpaConsentRepository;
+  private final TokenRevocationRepository tokenRevocationRepository;
 
   /**
    * Revokes a specific user's consent for a given client by marking it as invalidated.
@@ -55,6 +64,9 @@ public class ConsentCommandRepositoryAdapter implements ConsentCommandRepository
     var cid = clientId.getValue().toString();
     jpaConsentRepository.deleteAllConsentsByPrincipalIdAndClientId(principalId, cid);
     jpaConsentRepository.deleteAllAuthorizationsByPrincipalIdAndClientId(principalId, cid);
+
+    var revokedAt = Instant.now();
+    afterCommit(() -> tokenRevocationRepository.revokeAuthorizations(cid, principalId, revokedAt));
   }
 
   /**
@@ -66,5 +78,38 @@ public class ConsentCommandRepositoryAdapter implements ConsentCommandRepository
     var cid = clientId.getValue().toString();
     jpaConsentRepository.deleteAllConsentsByClientId(cid);
     jpaConsentRepository.deleteAllAuthorizationsByClientId(cid);
+
+    var revokedAt = Instant.now();
+    afterCommit(() -> tokenRevocationRepository.revokeAuthorizations(cid, revokedAt));
+  }
+
+  /**
+   * Runs the given action once the current transaction commits, or immediately when there is no
+   * active transaction. Failures are logged rather than propagated, since the deletion itself has
+   * already succeeded.
+   *
+   * @param action the action to run
+   */
+  private void afterCommit(Runnable action) {
+    Runnable safeAction =
+        () -> {
+          try {
+            action.run();
+          } catch (Exception e) {
+            log.error("Could not record authorization revocation", e);
+          }
+        };
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      safeAction.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          public void afterCommit() {
+            safeAction.run();
+          }
+        });
   }
 }
@@ -35,6 +35,8 @@ import com.asc.common.core.domain.exception.ConsentNotFoundException;
 import com.asc.common.core.domain.value.ClientId;
 import com.asc.common.data.consent.entity.ConsentEntity;
 import com.asc.common.data.consent.repository.JpaConsentRepository;
+import com.asc.common.service.ports.output.repository.TokenRevocationRepository;
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -47,6 +49,7 @@ import org.mockito.MockitoAnnotations;
 class ConsentCommandRepositoryAdapterTest {
   @InjectMocks private ConsentCommandRepositoryAdapter consentCommandRepositoryAdapter;
   @Mock private JpaConsentRepository jpaConsentRepository;
+  @Mock private TokenRevocationRepository tokenRevocationRepository;
 
   private ClientId clientId;
   private String principalId;
@@ -88,4 +91,27 @@ class ConsentCommandRepositoryAdapterTest {
     verify(jpaConsentRepository).findById(any(ConsentEntity.ConsentId.class));
     verify(jpaConsentRepository, never()).save(any(ConsentEntity.class));
   }
+
+  @Test
+  void revokeConsent_RecordsAuthorizationRevocation() {
+    var cid = clientId.getValue().toString();
+
+    consentCommandRepositoryAdapter.revokeConsent(clientId, principalId);
+
+    verify(jpaConsentRepository).deleteAllConsentsByPrincipalIdAndClientId(principalId, cid);
+    verify(jpaConsentRepository).deleteAllAuthorizationsByPrincipalIdAndClientId(principalId, cid);
+    verify(tokenRevocationRepository)
+        .revokeAuthorizations(eq(cid), eq(principalId), any(Instant.class));
+  }
+
+  @Test
+  void revokeAllConsents_RecordsClientRevocation() {
+    var cid = clientId.getValue().toString();
+
+    consentCommandRepositoryAdapter.revokeAllConsents(clientId);
+
+    verify(jpaConsentRepository).deleteAllConsentsByClientId(cid);
+    verify(jpaConsentRepository).deleteAllAuthorizationsByClientId(cid);
+    verify(tokenRevocationRepository).revokeAuthorizations(eq(cid), any(Instant.class));
+  }
 }
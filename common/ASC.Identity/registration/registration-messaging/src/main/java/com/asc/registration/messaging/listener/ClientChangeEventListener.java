@@ -0,0 +1,72 @@
+// (c) Copyright Ascensio System SIA 2009-2024
+//
+// This program is a free software product.
+// You can redistribute it and/or modify it under the terms
+// of the GNU Affero General Public License (AGPL) version 3 as published by the Free Software
+// Foundation. In accordance with Section 7(a) of the GNU AGPL its Section 15 shall be amended
+// to the effect that Ascensio System SIA expressly excludes the warranty of non-infringement of
+// any third-party rights.
+//
+// This program is distributed WITHOUT ANY WARRANTY, without even the implied warranty
+// of MERCHANTABILITY or FITNESS FOR A PARTICULAR  PURPOSE. For details, see
+// the GNU AGPL at: http://www.gnu.org/licenses/agpl-3.0.html
+//
+// You can contact Ascensio System SIA at Lubanas st. 125a-25, Riga, Latvia, EU, LV-1021.
+//
+// The  interactive user interfaces in modified source and object code versions of the Program must
+// display Appropriate Legal Notices, as required under Section 5 of the GNU AGPL version 3.
+//
+// Pursuant to Section 7(b) of the License you must retain the original Product logo when
+// distributing the program. Pursuant to Section 7(e) we decline to grant you any rights under
+// trademark law for use of our trademarks.
+//
+// All the Product's GUI elements, including illustrations and icon sets, as well as technical
+// writing
+// content are licensed under the terms of the Creative Commons Attribution-ShareAlike 4.0
+// International. See the License terms at http://creativecommons.org/licenses/by-sa/4.0/legalcode
+
+package com.asc.registration.messaging.listener;
+
+import com.asc.common.service.transfer.message.ClientChangedMessage;
+import com.asc.registration.core.domain.event.ClientCreatedEvent;
+import com.asc.registration.core.domain.event.ClientEvent;
+import com.hazelcast.core.HazelcastInstance;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * ClientChangeEventListener announces committed client changes to other services, so that they
+ * evict the client from their caches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClientChangeEventListener {
+  private final HazelcastInstance hazelcastInstance;
+
+  /**
+   * Publishes a client changed message once the transaction changing the client has been committed.
+   * Newly created clients cannot be cached yet and are skipped. Failures are logged only, as cached
+   * clients expire on their own.
+   *
+   * @param event The client event to process.
+   */
+  @TransactionalEventListener
+  public void process(ClientEvent event) {
+    if (event instanceof ClientCreatedEvent) return;
+
+    var clientId = event.getClient().getId().getValue().toString();
+    try {
+      hazelcastInstance
+          .<ClientChangedMessage>getTopic(ClientChangedMessage.TOPIC)
+          .publish(ClientChangedMessage.builder().clientId(clientId).build());
+    } catch (Exception e) {
+      MDC.put("client_id", clientId);
+      log.warn("Could not publish client changed message", e);
+      MDC.clear();
+    }
+  }
+}